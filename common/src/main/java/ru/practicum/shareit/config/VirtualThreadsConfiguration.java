@@ -0,0 +1,52 @@
+package ru.practicum.shareit.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual thread mode of the gateway and the server, {@code shareit.virtual-threads.enabled=true}: Tomcat handles
+ * every request on a new virtual thread instead of its bounded pool, so a request waiting on JDBC or, in the
+ * gateway's blocking client mode, on the server holds no platform thread. Work in flight is still bounded by
+ * {@code spring.datasource.hikari.maximum-pool-size} and {@code shareit-server.http-client.max-per-route}.
+ * Needs Java 21, startup fails on an older runtime.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+
+    /**
+     * Not a bean, an {@code Executor} bean would replace the task executor Spring Boot configures for async requests.
+     */
+    private final ExecutorService requestExecutor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        requestExecutor.shutdown();
+    }
+
+    /**
+     * Looked up reflectively, the sources are still compiled for Java 11.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("shareit.virtual-threads.enabled needs Java 21 or newer, running on "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual thread executor is not available", e);
+        }
+    }
+}
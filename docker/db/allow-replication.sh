@@ -0,0 +1,8 @@
+#!/bin/sh
+# lets db-replica of the "replica" compose profile stream the WAL, wal_level is replica by default;
+# only the replication role may do it and only from the networks of db, which is the compose network
+if echo ",$COMPOSE_PROFILES," | grep -q ",replica,"; then
+  psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" \
+    -c "CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD '$REPLICATION_PASSWORD'"
+  echo "host replication replicator samenet md5" >> "$PGDATA/pg_hba.conf"
+fi
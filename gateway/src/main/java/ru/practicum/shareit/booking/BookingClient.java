@@ -1,76 +1,110 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerExchangeFactory;
+import ru.practicum.shareit.item.ItemClient;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+/**
+ * Booking writes change the last and next bookings in the item responses, so they evict the cached items:
+ * the booked item, or every item on a status change, whose request does not name the item.
+ */
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerExchangeFactory exchangeFactory, ResponseCache responseCache) {
+        super(exchangeFactory.forPrefix(API_PREFIX));
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from,
+                                              @Nullable Integer size) {
+        return getList("", userId, state, from, null, size);
     }
 
-    public ResponseEntity<Object> getBookingsNoPagination(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
-        return get("?state={state}", userId, parameters);
+    /**
+     * Keyset page, the first one is asked for without a cursor and answers with {@code X-Next-Cursor}.
+     */
+    public Mono<ResponseEntity<Object>> getBookingsPage(long userId, BookingState state, @Nullable String cursor,
+                                                  @Nullable Integer size) {
+        return getList("", userId, state, null, cursor, size);
     }
 
-    public ResponseEntity<Object> getBookingsForOwner(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookingsNoPagination(long userId, BookingState state) {
+        return getList("", userId, state, null, null, null);
     }
 
-    public ResponseEntity<Object> getBookingsNoPaginationForOwner(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
-        return get("/owner?state={state}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookingsForOwner(long userId, BookingState state, Integer from,
+                                                      @Nullable Integer size) {
+        return getList("/owner", userId, state, from, null, size);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsPageForOwner(long userId, BookingState state,
+                                                          @Nullable String cursor, @Nullable Integer size) {
+        return getList("/owner", userId, state, null, cursor, size);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsNoPaginationForOwner(long userId, BookingState state) {
+        return getList("/owner", userId, state, null, null, null);
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    /**
+     * Sends only the paging parameters that are set, the server tells the kind of list by them.
+     */
+    private Mono<ResponseEntity<Object>> getList(String path, long userId, BookingState state, @Nullable Integer from,
+                                                 @Nullable String cursor, @Nullable Integer size) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("state", state.name());
+        if (from != null) {
+            parameters.put("from", from);
+        }
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        if (size != null) {
+            parameters.put("size", size);
+        }
+        String query = parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&"));
+        return get(path + "?" + query, userId, parameters);
     }
 
-    public ResponseEntity<Object> setBookingStatus(long bookingId, long userId, boolean approved) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
+        return post("", userId, requestDto)
+                .doOnNext(response -> evictOnSuccess(response,
+                        () -> responseCache.evictPath(ItemClient.ITEM_ROUTE, "/" + requestDto.getItemId())));
+    }
+
+    public Mono<ResponseEntity<Object>> setBookingStatus(long bookingId, long userId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", String.valueOf(approved)
         );
-        return patch("/" + bookingId + "?approved=" + approved, userId);
+        return patch("/" + bookingId + "?approved=" + approved, userId)
+                .doOnNext(response -> evictOnSuccess(response, () -> responseCache.evictRoute(ItemClient.ITEM_ROUTE)));
+    }
+
+    public Mono<ResponseEntity<Object>> getBookings(long userId, List<Long> bookingIds) {
+        return get("?ids={ids}", userId, idsParameter(bookingIds));
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 }
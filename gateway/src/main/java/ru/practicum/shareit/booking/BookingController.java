@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
@@ -13,6 +14,8 @@ import ru.practicum.shareit.exception.UnsupportedStatusException;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -23,45 +26,63 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(
+    public Mono<ResponseEntity<Object>> getBookings(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", required = false, defaultValue = "all") String stateParam,
-            @RequestParam(name = "from", required = false) @Positive Integer from,
-            @RequestParam(name = "size", required = false) @PositiveOrZero Integer size) {
+            @RequestParam(name = "from", required = false) @PositiveOrZero Integer from,
+            @RequestParam(name = "size", required = false) @Positive Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStatusException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        if (from != null && size != null) {
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}",
+                stateParam, userId, from, size, cursor);
+        if (from != null && cursor == null) {
             return bookingClient.getBookings(userId, state, from, size);
         }
+        if (cursor != null || size != null) {
+            return bookingClient.getBookingsPage(userId, state, cursor, size);
+        }
         return bookingClient.getBookingsNoPagination(userId, state);
     }
 
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<Object>> getBookingsByIds(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam @Size(min = 1, max = 100) List<@Positive Long> ids) {
+        log.info("Get bookings {}, userId={}", ids, userId);
+        return bookingClient.getBookings(userId, ids);
+    }
+
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByOwnerId(
+    public Mono<ResponseEntity<Object>> getBookingsByOwnerId(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", required = false, defaultValue = "all") String stateParam,
-            @RequestParam(name = "from", required = false) @Positive Integer from,
-            @RequestParam(name = "size", required = false) @PositiveOrZero Integer size) {
+            @RequestParam(name = "from", required = false) @PositiveOrZero Integer from,
+            @RequestParam(name = "size", required = false) @Positive Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStatusException("Unknown state: " + stateParam));
-        log.info("Get bookings for owner {} with state {}, from={}, size={}", userId, stateParam, from, size);
-        if (from != null && size != null) {
+        log.info("Get bookings for owner {} with state {}, from={}, size={}, cursor={}",
+                userId, stateParam, from, size, cursor);
+        if (from != null && cursor == null) {
             return bookingClient.getBookingsForOwner(userId, state, from, size);
         }
+        if (cursor != null || size != null) {
+            return bookingClient.getBookingsPageForOwner(userId, state, cursor, size);
+        }
         return bookingClient.getBookingsNoPaginationForOwner(userId, state);
 
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> setBookingStatus(@PathVariable("bookingId") Long bookingId,
+    public Mono<ResponseEntity<Object>> setBookingStatus(@PathVariable("bookingId") Long bookingId,
                                                    @RequestHeader("X-Sharer-User-Id") Long userId,
                                                    @RequestParam boolean approved) {
         log.info("Setting status to booking {}", bookingId);
@@ -69,7 +90,7 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeouts of the HTTP client shared by all clients of the ShareIt server.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+
+    private int maxTotal = 200;
+    private int maxPerRoute = 100;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /**
+     * How long a request waits for a free pooled connection.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    /**
+     * Connections idle for longer are closed, keep it below the keep-alive timeout of the server.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(15);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
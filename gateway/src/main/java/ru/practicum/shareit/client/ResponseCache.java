@@ -0,0 +1,123 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of successful server responses to GETs, each kept for the time to live of its route.
+ * Entries are keyed on route, path, parameters and user. A response requested before an eviction
+ * is not stored, so a read that races with a write cannot bring the old response back.
+ * Size, hits and misses are published as the {@code cache.*} metrics tagged {@code cache=gateway-responses}.
+ */
+public class ResponseCache {
+
+    public static final String NAME = "gateway-responses";
+
+    private final Map<String, Duration> timeToLive;
+    private final Cache<Key, ResponseEntity<Object>> responses;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry, Ticker ticker) {
+        timeToLive = Map.copyOf(properties.getTimeToLive());
+        responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new RouteExpiry())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, NAME);
+        Gauge.builder("cache.hit.ratio", responses, cache -> cache.stats().hitRate())
+                .tag("cache", NAME)
+                .description("The ratio of cache requests which were hits")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached response or sends the request with {@code loader} and caches a successful response.
+     * Requests of routes without a time to live are always sent.
+     */
+    public Mono<ResponseEntity<Object>> get(String route, String path, @Nullable Long userId,
+                                            @Nullable Map<String, Object> parameters,
+                                            Supplier<Mono<ResponseEntity<Object>>> loader) {
+        if (!timeToLive.containsKey(route)) {
+            return loader.get();
+        }
+        Key key = new Key(route, path, userId, parameters == null ? Map.of() : new HashMap<>(parameters));
+        return Mono.defer(() -> {
+            ResponseEntity<Object> cached = responses.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long evictionsBefore = evictions.get();
+            return loader.get().doOnNext(response -> {
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    responses.put(key, response);
+                    if (evictions.get() != evictionsBefore) {
+                        responses.invalidate(key);
+                    }
+                }
+            });
+        });
+    }
+
+    public void evictRoute(String route) {
+        evictIf(key -> key.getRoute().equals(route));
+    }
+
+    public void evictPath(String route, String path) {
+        evictIf(key -> key.getRoute().equals(route) && key.getPath().equals(path));
+    }
+
+    private void evictIf(Predicate<Key> matches) {
+        evictions.incrementAndGet();
+        responses.asMap().keySet().removeIf(matches);
+    }
+
+    @Value
+    private static class Key {
+        String route;
+        String path;
+        Long userId;
+        Map<String, Object> parameters;
+    }
+
+    private class RouteExpiry implements Expiry<Key, ResponseEntity<Object>> {
+
+        @Override
+        public long expireAfterCreate(Key key, ResponseEntity<Object> response, long currentTime) {
+            return timeToLive.get(key.getRoute()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, ResponseEntity<Object> response, long currentTime,
+                                      long currentDuration) {
+            return timeToLive.get(key.getRoute()).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(Key key, ResponseEntity<Object> response, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
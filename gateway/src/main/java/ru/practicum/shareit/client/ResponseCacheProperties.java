@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Size of the gateway response cache and how long the responses of every cached route are kept.
+ * Routes without a time to live are not cached.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.response-cache")
+public class ResponseCacheProperties {
+
+    private long maximumSize = 10000;
+    private Map<String, Duration> timeToLive = new HashMap<>();
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Blocking exchange, the request is sent on the subscribing thread, which is the servlet request thread.
+ */
+public class RestTemplateExchange implements ServerExchange {
+
+    private final RestTemplate rest;
+
+    public RestTemplateExchange(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> send(method, path, new HttpEntity<>(body, headers), parameters));
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String path, HttpEntity<Object> requestEntity,
+                                        @Nullable Map<String, Object> parameters) {
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ServerExchange.gatewayResponse(e.getRawStatusCode(), e.getResponseHeaders(),
+                    e.getResponseBodyAsByteArray());
+        }
+        return ServerExchange.gatewayResponse(shareitServerResponse.getStatusCodeValue(),
+                shareitServerResponse.getHeaders(), shareitServerResponse.getBody());
+    }
+}
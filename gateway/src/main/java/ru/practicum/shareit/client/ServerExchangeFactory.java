@@ -0,0 +1,10 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Creates the {@link ServerExchange} of a client, {@code shareit-server.client} selects the implementation.
+ */
+@FunctionalInterface
+public interface ServerExchangeFactory {
+
+    ServerExchange forPrefix(String apiPrefix);
+}
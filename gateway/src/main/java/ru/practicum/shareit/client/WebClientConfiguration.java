@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Reactive mode, {@code shareit-server.client=reactive}: every {@link BaseClient} sends its requests through
+ * a {@link WebClientExchange} on Reactor Netty. Controllers return the pending response, so the servlet
+ * request thread is released while the server answers and a few event loop threads carry all requests.
+ * Pool usage is published as the {@code reactor.netty.connection.provider.*} metrics tagged
+ * {@code name=shareit-server}.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+@ConditionalOnProperty(name = "shareit-server.client", havingValue = "reactive")
+public class WebClientConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxPerRoute())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getIdleTimeout())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ServerExchangeFactory webClientExchangeFactory(@Value("${shareit-server.url}") String serverUrl,
+                                                          WebClient.Builder builder,
+                                                          ConnectionProvider shareitServerConnectionProvider,
+                                                          ReactorResourceFactory reactorResourceFactory,
+                                                          HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareitServerConnectionProvider)
+                .runOn(reactorResourceFactory.getLoopResources())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        WebClient.Builder serverClient = builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1));
+        return apiPrefix -> new WebClientExchange(serverClient.clone()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                .build());
+    }
+}
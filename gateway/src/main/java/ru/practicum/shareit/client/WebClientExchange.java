@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking exchange, the servlet request thread is released while the server answers.
+ */
+public class WebClientExchange implements ServerExchange {
+
+    private final WebClient webClient;
+
+    public WebClientExchange(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> response.bodyToMono(byte[].class)
+                .map(bytes -> ServerExchange.gatewayResponse(response.rawStatusCode(),
+                        response.headers().asHttpHeaders(), bytes))
+                .switchIfEmpty(Mono.fromSupplier(() -> ServerExchange.gatewayResponse(response.rawStatusCode(),
+                        response.headers().asHttpHeaders(), null))));
+    }
+}
@@ -6,6 +6,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.item.dto.ItemImportError;
+
+import javax.validation.ConstraintViolationException;
+import java.util.List;
 
 @RestControllerAdvice
 public class ErrorHandler {
@@ -16,9 +20,34 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolationException(final ConstraintViolationException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleIllegalArgumentException(final IllegalArgumentException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(ItemImportException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ImportErrorResponse handleItemImportException(final ItemImportException e) {
+        return new ImportErrorResponse(e.getMessage(), e.getErrors());
+    }
+
     @Getter
     @AllArgsConstructor
     static class ErrorResponse {
         private final String error;
     }
+
+    @Getter
+    @AllArgsConstructor
+    static class ImportErrorResponse {
+        private final String error;
+        private final List<ItemImportError> errors;
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemImportError;
+
+import java.util.List;
+
+@Getter
+public class ItemImportException extends RuntimeException {
+    private final List<ItemImportError> errors;
+
+    public ItemImportException(final List<ItemImportError> errors) {
+        super(errors.size() + " rows of the import are invalid");
+        this.errors = errors;
+    }
+}
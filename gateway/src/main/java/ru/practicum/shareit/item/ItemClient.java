@@ -1,56 +1,113 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerExchangeFactory;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemCreateRequestDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemClient extends BaseClient {
 
+    public static final String ITEM_ROUTE = "item";
+    public static final String SEARCH_ROUTE = "item-search";
     private static final String API_PREFIX = "/items";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerExchangeFactory exchangeFactory, ResponseCache responseCache) {
+        super(exchangeFactory.forPrefix(API_PREFIX));
+        this.responseCache = responseCache;
+    }
+
+    public Mono<ResponseEntity<Object>> saveNewItem(long userId, ItemCreateRequestDto itemCreateRequestDto) {
+        return post("", userId, itemCreateRequestDto)
+                .doOnNext(response -> evictOnSuccess(response, () -> responseCache.evictRoute(SEARCH_ROUTE)));
+    }
+
+    public Mono<ResponseEntity<Object>> importItems(long userId, List<ItemCreateRequestDto> items) {
+        return post("/import", userId, items)
+                .doOnNext(response -> evictOnSuccess(response, () -> responseCache.evictRoute(SEARCH_ROUTE)));
     }
 
-    public ResponseEntity<Object> saveNewItem(long userId, ItemCreateRequestDto itemCreateRequestDto) {
-        return post("", userId, itemCreateRequestDto);
+    public Mono<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemCreateRequestDto itemCreateRequestDto) {
+        return patch("/" + itemId, userId, itemCreateRequestDto)
+                .doOnNext(response -> evictOnSuccess(response, () -> {
+                    responseCache.evictPath(ITEM_ROUTE, "/" + itemId);
+                    responseCache.evictRoute(SEARCH_ROUTE);
+                }));
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemCreateRequestDto itemCreateRequestDto) {
-        return patch("/" + itemId, userId, itemCreateRequestDto);
+    public Mono<ResponseEntity<Object>> getItem(long userId, long itemId) {
+        String path = "/" + itemId;
+        return responseCache.get(ITEM_ROUTE, path, userId, null, () -> get(path, userId));
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItems(long userId, List<Long> itemIds) {
+        return get("?ids={ids}", userId, idsParameter(itemIds));
     }
 
-    public ResponseEntity<Object> getItemByUserId(long userId) {
+    public Mono<ResponseEntity<Object>> getItemByUserId(long userId) {
         return get("/", userId);
     }
 
-    public ResponseEntity<Object> searchItemByQuery(String text) {
-        Map<String, Object> parameters = Map.of(
-                "text", text);
-        return get("/search?text={text}", null, parameters);
+    /**
+     * Sends only the paging parameters that are set, the server answers a search without them with every hit.
+     */
+    public Mono<ResponseEntity<Object>> searchItemByQuery(String text, @Nullable Integer from, @Nullable Integer size,
+                                                    @Nullable String cursor) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("text", text);
+        if (from != null) {
+            parameters.put("from", from);
+        }
+        if (size != null) {
+            parameters.put("size", size);
+        }
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        String query = parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&"));
+        return cachedSearch("/search?" + query, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> searchFreeItemsByQuery(String text, LocalDateTime start, LocalDateTime end,
+                                                         Integer from, Integer size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "text", text,
+                "start", start.toString(),
+                "end", end.toString(),
+                "from", from,
+                "size", size));
+        String path = "/search/available?text={text}&start={start}&end={end}&from={from}&size={size}";
+        if (cursor == null) {
+            return get(path, null, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get(path + "&cursor={cursor}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> saveNewComment(CommentRequestDto commentRequestDto, long userId, long itemId) {
+        return post("/" + itemId + "/comment", userId, commentRequestDto)
+                .doOnNext(response -> evictOnSuccess(response, () -> responseCache.evictPath(ITEM_ROUTE, "/" + itemId)));
     }
 
-    public ResponseEntity<Object> saveNewComment(CommentRequestDto commentRequestDto, long userId, long itemId) {
-        return post("/" + itemId + "/comment", userId, commentRequestDto);
+    private Mono<ResponseEntity<Object>> cachedSearch(String path, Map<String, Object> parameters) {
+        return responseCache.get(SEARCH_ROUTE, path, null, parameters, () -> get(path, null, parameters));
     }
 }
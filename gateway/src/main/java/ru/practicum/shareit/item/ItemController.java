@@ -2,14 +2,22 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemCreateRequestDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -19,23 +27,39 @@ import javax.validation.Valid;
 public class ItemController {
 
     private final ItemClient itemClient;
+    private final ItemImportReader itemImportReader;
 
     @PostMapping
-    public ResponseEntity<Object> saveItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> saveItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @RequestBody @Valid ItemCreateRequestDto itemCreateRequestDto) {
         log.info("Creating item {}, userId={}", itemCreateRequestDto, userId);
         return itemClient.saveNewItem(userId, itemCreateRequestDto);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestBody List<ItemCreateRequestDto> items) {
+        log.info("Importing {} items, userId={}", items.size(), userId);
+        return itemClient.importItems(userId, itemImportReader.validate(items));
+    }
+
+    @PostMapping(path = "/import", consumes = ItemImportReader.NDJSON)
+    public Mono<ResponseEntity<Object>> importItemsNdjson(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                          @RequestBody String lines) {
+        List<ItemCreateRequestDto> items = itemImportReader.readNdjson(lines);
+        log.info("Importing {} items, userId={}", items.size(), userId);
+        return itemClient.importItems(userId, items);
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                           @PathVariable Long itemId) {
         log.info("Get item Id={}", itemId);
         return itemClient.getItem(userId, itemId);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItemById(@RequestBody ItemCreateRequestDto itemDto,
+    public Mono<ResponseEntity<Object>> updateItemById(@RequestBody ItemCreateRequestDto itemDto,
                                                  @RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @PathVariable("id") Long itemId) {
         log.info("Updating item Id={}", itemId);
@@ -43,19 +67,47 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Getting item for userID={}", userId);
         return itemClient.getItemByUserId(userId);
     }
 
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<Object>> getItemsByIds(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam @Size(min = 1, max = 100) List<@Positive Long> ids) {
+        log.info("Get items {}, userId={}", ids, userId);
+        return itemClient.getItems(userId, ids);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsByQuery(@RequestParam String text) {
-        log.info("Searching for items with {}", text);
-        return itemClient.searchItemByQuery(text);
+    public Mono<ResponseEntity<Object>> getItemsByQuery(
+            @RequestParam String text,
+            @PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
+            @Positive @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Searching for items with {}, from={}, size={}, cursor={}", text, from, size, cursor);
+        return itemClient.searchItemByQuery(text, from, size, cursor);
+    }
+
+    @GetMapping("/search/available")
+    public Mono<ResponseEntity<Object>> getFreeItemsByQuery(
+            @RequestParam String text,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("start should be before end");
+        }
+        log.info("Searching for items with {} free from {} to {}, from={}, size={}, cursor={}",
+                text, start, end, from, size, cursor);
+        return itemClient.searchFreeItemsByQuery(text, start, end, from, size, cursor);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> saveComment(@Valid @RequestBody CommentRequestDto commentDto,
+    public Mono<ResponseEntity<Object>> saveComment(@Valid @RequestBody CommentRequestDto commentDto,
                                               @RequestHeader(value = "X-Sharer-User-Id") Long userId,
                                               @PathVariable("itemId") Long itemId) {
         log.info("Creating comment = {} for item = {}", commentDto, itemId);
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ItemImportException;
+import ru.practicum.shareit.item.dto.ItemCreateRequestDto;
+import ru.practicum.shareit.item.dto.ItemImportError;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the rows of an item import, a JSON array or NDJSON with one item per line, and validates every row
+ * like a single new item. One bad row rejects the whole import with the errors of all bad rows,
+ * so the server only gets rows it can save.
+ */
+@Component
+public class ItemImportReader {
+
+    public static final String NDJSON = "application/x-ndjson";
+    static final int MAX_ROWS = 10_000;
+
+    private final ObjectReader rowReader;
+    private final Validator validator;
+
+    public ItemImportReader(ObjectMapper objectMapper, Validator validator) {
+        this.rowReader = objectMapper.readerFor(ItemCreateRequestDto.class);
+        this.validator = validator;
+    }
+
+    public List<ItemCreateRequestDto> readNdjson(String body) {
+        List<String> lines = body.lines().collect(Collectors.toList());
+        checkRowCount(lines.size());
+        List<ItemCreateRequestDto> rows = new ArrayList<>(lines.size());
+        List<ItemImportError> errors = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            ItemCreateRequestDto row = null;
+            if (!lines.get(i).isBlank()) {
+                try {
+                    row = rowReader.readValue(lines.get(i));
+                } catch (JsonProcessingException e) {
+                    errors.add(new ItemImportError(i + 1, "malformed JSON: " + e.getOriginalMessage()));
+                    continue;
+                }
+            }
+            rows.add(row);
+            validateRow(i + 1, row, errors);
+        }
+        throwIfInvalid(errors);
+        return rows;
+    }
+
+    public List<ItemCreateRequestDto> validate(List<ItemCreateRequestDto> rows) {
+        checkRowCount(rows.size());
+        List<ItemImportError> errors = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            validateRow(i + 1, rows.get(i), errors);
+        }
+        throwIfInvalid(errors);
+        return rows;
+    }
+
+    private void validateRow(int row, ItemCreateRequestDto item, List<ItemImportError> errors) {
+        if (item == null) {
+            errors.add(new ItemImportError(row, "empty row"));
+            return;
+        }
+        for (ConstraintViolation<ItemCreateRequestDto> violation : validator.validate(item)) {
+            errors.add(new ItemImportError(row, violation.getMessage()));
+        }
+    }
+
+    private static void checkRowCount(int count) {
+        if (count == 0 || count > MAX_ROWS) {
+            throw new IllegalArgumentException("import should have from 1 to " + MAX_ROWS + " rows");
+        }
+    }
+
+    private static void throwIfInvalid(List<ItemImportError> errors) {
+        if (!errors.isEmpty()) {
+            throw new ItemImportException(errors);
+        }
+    }
+}
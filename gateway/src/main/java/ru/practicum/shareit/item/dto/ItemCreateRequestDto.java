@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 
 @Getter
 @AllArgsConstructor
@@ -13,8 +14,10 @@ import javax.validation.constraints.NotNull;
 public class ItemCreateRequestDto {
 
     @NotEmpty(message = "name required")
+    @Size(max = 250, message = "name should be at most 250 characters")
     private String name;
     @NotEmpty(message = "description required")
+    @Size(max = 250, message = "description should be at most 250 characters")
     private String description;
     @NotNull(message = "availability required")
     private Boolean available;
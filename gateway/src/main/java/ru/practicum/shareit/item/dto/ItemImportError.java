@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of an item import that cannot be saved, rows are counted from 1.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportError {
+    private int row;
+    private String error;
+}
@@ -1,48 +1,47 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchangeFactory;
 import ru.practicum.shareit.user.dto.UserCreateRequestDto;
 import ru.practicum.shareit.user.dto.UserUpdateRequestDto;
 
+import java.util.List;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerExchangeFactory exchangeFactory) {
+        super(exchangeFactory.forPrefix(API_PREFIX));
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> saveNewUser(UserCreateRequestDto userDto) {
+    public Mono<ResponseEntity<Object>> getUsers(List<Long> ids) {
+        return get("?ids={ids}", null, idsParameter(ids));
+    }
+
+    public Mono<ResponseEntity<Object>> saveNewUser(UserCreateRequestDto userDto) {
         return post("/", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserUpdateRequestDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(long userId, UserUpdateRequestDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> getUser(long userId) {
+    public Mono<ResponseEntity<Object>> getUser(long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> removeUser(long userId) {
+    public Mono<ResponseEntity<Object>> removeUser(long userId) {
         return delete("/" + userId);
     }
 }
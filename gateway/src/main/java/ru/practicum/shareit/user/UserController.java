@@ -6,11 +6,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserCreateRequestDto;
 import ru.practicum.shareit.user.dto.UserUpdateRequestDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/users")
@@ -22,32 +25,39 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         log.info("Get all users");
         return userClient.getUsers();
     }
 
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<Object>> getUsersByIds(
+            @RequestParam @Size(min = 1, max = 100) List<@Positive Long> ids) {
+        log.info("Get users {}", ids);
+        return userClient.getUsers(ids);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> saveUser(@Valid @RequestBody UserCreateRequestDto userDto) {
+    public Mono<ResponseEntity<Object>> saveUser(@Valid @RequestBody UserCreateRequestDto userDto) {
         log.info("Creating user {}", userDto);
         return userClient.saveNewUser(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable("id") @Positive Long userId,
+    public Mono<ResponseEntity<Object>> update(@PathVariable("id") @Positive Long userId,
                                          @Valid @RequestBody UserUpdateRequestDto userDto) {
         log.info("Updating user {}, id = {}", userId, userDto);
         return userClient.updateUser(userId, userDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable("id") @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable("id") @Positive Long userId) {
         log.info("Get user {}", userId);
         return userClient.getUser(userId);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> removeUser(@PathVariable("id") Long userId) {
+    public Mono<ResponseEntity<Object>> removeUser(@PathVariable("id") Long userId) {
         log.info("Remove user {}", userId);
         return userClient.removeUser(userId);
     }
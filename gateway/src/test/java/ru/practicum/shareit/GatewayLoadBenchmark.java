@@ -0,0 +1,140 @@
+package ru.practicum.shareit;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends a burst of concurrent requests through the gateway in the blocking and in the reactive mode
+ * to a fake server that answers every request after a fixed delay, and prints wall time, latency
+ * percentiles and how many requests the gateway kept pending at the server at once. The first row calls
+ * the fake server directly and shows what the load generator itself can reach. Every request asks for
+ * another user, identical GETs would be merged into one server call.
+ * Run with the main method from the IDE or {@code mvn -pl gateway test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=ru.practicum.shareit.GatewayLoadBenchmark -Dexec.args="2000 2000"},
+ * the arguments are the number of requests and the server delay in milliseconds.
+ */
+public class GatewayLoadBenchmark {
+
+    private static final byte[] USERS = "[{\"id\":1,\"name\":\"Olga\",\"email\":\"olga@email.com\"}]"
+            .getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Lets a whole burst of connections wait for accept, so the listen queue does not drop connections.
+     */
+    private static final int BACKLOG = 4096;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    /**
+     * The fake server and the load generator keep their own event loops, the gateway disposes
+     * the global Reactor Netty resources when its context is closed.
+     */
+    private final LoopResources loops = LoopResources.create("benchmark");
+
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        long delayMillis = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        new GatewayLoadBenchmark().run(requests, delayMillis);
+    }
+
+    private void run(int requests, long delayMillis) {
+        DisposableServer server = startServer(Duration.ofMillis(delayMillis));
+        ConnectionProvider connections = ConnectionProvider.builder("benchmark")
+                .maxConnections(requests)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient client = HttpClient.create(connections).runOn(loops);
+        try {
+            System.out.printf("%d concurrent requests, server delay %d ms%n", requests, delayMillis);
+            System.out.printf("%-9s %10s %10s %10s %14s%n", "mode", "wall ms", "p50 ms", "p99 ms", "max pending");
+            report("direct", client.baseUrl("http://localhost:" + server.port()), requests);
+            for (String mode : List.of("blocking", "reactive")) {
+                measure(mode, server.port(), client, requests);
+            }
+        } finally {
+            connections.disposeLater().block();
+            server.disposeNow();
+            loops.disposeLater().block();
+        }
+    }
+
+    private void measure(String mode, int serverPort, HttpClient client, int requests) {
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(ShareItGateway.class)
+                        .run("--server.port=0",
+                                "--server.tomcat.accept-count=" + BACKLOG,
+                                "--shareit-server.url=http://localhost:" + serverPort,
+                                "--shareit-server.client=" + mode,
+                                "--shareit-server.http-client.max-total=" + requests,
+                                "--shareit-server.http-client.max-per-route=" + requests,
+                                "--shareit-server.http-client.connection-request-timeout=5m",
+                                "--shareit-server.http-client.read-timeout=5m",
+                                "--logging.level.root=WARN",
+                                "--logging.level.org.springframework.web.client.RestTemplate=WARN")) {
+            report(mode, client.baseUrl("http://localhost:" + context.getWebServer().getPort()), requests);
+        }
+    }
+
+    private void report(String mode, HttpClient client, int requests) {
+        burst(client, Math.min(requests, 100));
+        maxInFlight.set(0);
+
+        long start = System.nanoTime();
+        long[] latencies = burst(client, requests);
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%-9s %10d %10d %10d %14d%n", mode, wallMillis,
+                latencies[latencies.length / 2], latencies[latencies.length * 99 / 100], maxInFlight.get());
+    }
+
+    private long[] burst(HttpClient client, int requests) {
+        return Flux.range(0, requests)
+                .flatMap(i -> client.headers(headers -> headers.set("Accept", "application/json"))
+                        .get()
+                        .uri("/users/" + (i + 1))
+                        .responseSingle((response, body) -> {
+                            if (response.status().code() != 200) {
+                                return Mono.error(new IllegalStateException("Gateway answered " + response.status()));
+                            }
+                            return body.asByteArray();
+                        })
+                        .elapsed()
+                        .map(timed -> timed.getT1()), requests)
+                .sort()
+                .collectList()
+                .block()
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private DisposableServer startServer(Duration delay) {
+        return HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .runOn(loops)
+                .option(ChannelOption.SO_BACKLOG, BACKLOG)
+                .handle((request, response) -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return Mono.delay(delay)
+                            .doOnNext(ignored -> inFlight.decrementAndGet())
+                            .then(response.header("Content-Type", "application/json")
+                                    .sendByteArray(Mono.just(USERS))
+                                    .then());
+                })
+                .bindNow();
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+class BookingClientTest {
+
+    private final List<String> sent = new ArrayList<>();
+    private ItemClient itemClient;
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTimeToLive(Map.of(ItemClient.ITEM_ROUTE, Duration.ofMinutes(1)));
+        ResponseCache responseCache = new ResponseCache(properties, new SimpleMeterRegistry());
+        ServerExchange exchange = (method, path, headers, parameters, body) -> Mono.fromCallable(() -> {
+            sent.add(method + " " + path);
+            return ResponseEntity.ok("{}".getBytes(StandardCharsets.UTF_8));
+        });
+        itemClient = new ItemClient(apiPrefix -> exchange, responseCache);
+        bookingClient = new BookingClient(apiPrefix -> exchange, responseCache);
+    }
+
+    @Test
+    void bookingEvictsBookedItemOnly() {
+        itemClient.getItem(1L, 1L).block();
+        itemClient.getItem(1L, 2L).block();
+        bookingClient.bookItem(2L, new BookItemRequestDto(1L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2))).block();
+        itemClient.getItem(1L, 1L).block();
+        itemClient.getItem(1L, 2L).block();
+
+        assertThat(sent, contains("GET /1", "GET /2", "POST ", "GET /1"));
+    }
+
+    @Test
+    void statusChangeEvictsItems() {
+        itemClient.getItem(1L, 1L).block();
+        bookingClient.setBookingStatus(1L, 1L, true).block();
+        itemClient.getItem(1L, 1L).block();
+
+        assertThat(sent, contains("GET /1", "PATCH /1?approved=true", "GET /1"));
+    }
+}
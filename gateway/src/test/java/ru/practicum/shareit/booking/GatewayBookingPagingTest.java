@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.client.ServerExchangeFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Booking lists through the gateway controller and {@link BookingClient} down to a server stand-in
+ * that pages five bookings by cursor the way the server does.
+ */
+@WebMvcTest(controllers = BookingController.class)
+@Import({BookingClient.class, GatewayBookingPagingTest.ServerStandIn.class})
+class GatewayBookingPagingTest {
+
+    private static final List<Map<String, Object>> SENT = new ArrayList<>();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        SENT.clear();
+    }
+
+    @Test
+    void firstPageGivesCursorOfSecondPage() throws Exception {
+        MvcResult first = perform(get("/bookings").param("size", "3"));
+        String cursor = first.getResponse().getHeader("X-Next-Cursor");
+        MvcResult second = perform(get("/bookings").param("size", "3").param("cursor", cursor));
+
+        assertThat(first.getResponse().getContentAsString(), equalTo("[1,2,3]"));
+        assertThat(second.getResponse().getContentAsString(), equalTo("[4,5]"));
+        assertThat(second.getResponse().getHeader("X-Next-Cursor"), nullValue());
+        assertThat(SENT, contains(
+                Map.of("state", "ALL", "size", 3),
+                Map.of("state", "ALL", "cursor", "3", "size", 3)));
+    }
+
+    @Test
+    void fromWithoutSizeIsPassedOn() throws Exception {
+        perform(get("/bookings/owner").param("from", "2"));
+        perform(get("/bookings/owner"));
+
+        assertThat(SENT, contains(Map.of("state", "ALL", "from", 2), Map.of("state", "ALL")));
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mvc.perform(request.header("X-Sharer-User-Id", 1)).andReturn();
+        return mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+    }
+
+    /**
+     * Imported, not annotated: an annotated class would also be picked up by tests that start the whole gateway.
+     */
+    static class ServerStandIn {
+
+        @Bean
+        ResponseCache responseCache() {
+            return new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        ServerExchangeFactory serverExchangeFactory() {
+            return apiPrefix -> (method, path, headers, parameters, body) -> Mono.fromCallable(() -> {
+                SENT.add(parameters);
+                long after = parameters.containsKey("cursor") ? Long.parseLong((String) parameters.get("cursor")) : 0;
+                int size = (Integer) parameters.getOrDefault("size", 10);
+                List<Long> page = LongStream.rangeClosed(after + 1, Math.min(after + size, 5))
+                        .boxed()
+                        .collect(Collectors.toList());
+                HttpHeaders responseHeaders = new HttpHeaders();
+                if (page.size() == size) {
+                    responseHeaders.set("X-Next-Cursor", String.valueOf(page.get(page.size() - 1)));
+                }
+                byte[] json = page.stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(",", "[", "]"))
+                        .getBytes(StandardCharsets.UTF_8);
+                return ResponseEntity.ok().headers(responseHeaders).body((Object) json);
+            });
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+
+    private static final String BOOKINGS = "[{\"id\":1,\"status\":\"WAITING\"},{\"id\":2,\"status\":\"APPROVED\"}]";
+
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplate();
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient(new RestTemplateExchange(rest));
+    }
+
+    @Test
+    void responseBodyIsPassedThroughAsBytes() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "abc");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        server.expect(requestTo("/bookings"))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(BOOKINGS, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/bookings", 1L).block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), equalTo(BOOKINGS.getBytes(StandardCharsets.UTF_8)));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor"), equalTo("abc"));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.TRANSFER_ENCODING), nullValue());
+    }
+
+    @Test
+    void ifNoneMatchIsForwardedAndNotModifiedPassedThrough() {
+        MockHttpServletRequest gatewayRequest = new MockHttpServletRequest();
+        gatewayRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        server.expect(requestTo("/bookings"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(headers));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(gatewayRequest));
+        ResponseEntity<Object> response;
+        try {
+            response = client.get("/bookings", 1L).block();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(response.getHeaders().getETag(), equalTo("\"v1\""));
+        assertThat(response.hasBody(), equalTo(false));
+    }
+
+    @Test
+    void errorBodyIsPassedThroughWithStatus() {
+        String error = "{\"error\":\"Booking not found\"}";
+        server.expect(requestTo("/bookings/99"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error));
+
+        ResponseEntity<Object> response = client.get("/bookings/99", 1L).block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(response.getBody(), equalTo(error.getBytes(StandardCharsets.UTF_8)));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void emptyResponseHasNoBody() {
+        server.expect(requestTo("/users/1"))
+                .andRespond(withStatus(HttpStatus.OK));
+
+        ResponseEntity<Object> response = client.delete("/users/1").block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.hasBody(), equalTo(false));
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneServerCall() {
+        List<Sinks.One<ResponseEntity<Object>>> calls = new ArrayList<>();
+        BaseClient pending = new BaseClient(pendingExchange(calls));
+
+        CompletableFuture<ResponseEntity<Object>> first = pending.get("/search?text={text}", null,
+                Map.of("text", "дрель")).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = pending.get("/search?text={text}", null,
+                Map.of("text", "дрель")).toFuture();
+        assertThat(calls.size(), equalTo(1));
+
+        ResponseEntity<Object> response = ResponseEntity.ok(BOOKINGS.getBytes(StandardCharsets.UTF_8));
+        calls.get(0).tryEmitValue(response);
+
+        assertThat(first.join(), sameInstance(response));
+        assertThat(second.join(), sameInstance(response));
+
+        pending.get("/search?text={text}", null, Map.of("text", "дрель")).toFuture();
+        assertThat(calls.size(), equalTo(2));
+    }
+
+    @Test
+    void getsOfDifferentUsersAreNotMerged() {
+        List<Sinks.One<ResponseEntity<Object>>> calls = new ArrayList<>();
+        BaseClient pending = new BaseClient(pendingExchange(calls));
+
+        pending.get("/items/1", 1L).toFuture();
+        pending.get("/items/1", 2L).toFuture();
+        pending.get("/items/2", 1L).toFuture();
+
+        assertThat(calls.size(), equalTo(3));
+    }
+
+    /**
+     * Keeps every call pending until its sink is completed by the test.
+     */
+    private static ServerExchange pendingExchange(List<Sinks.One<ResponseEntity<Object>>> calls) {
+        return (method, path, headers, parameters, body) -> Mono.defer(() -> {
+            Sinks.One<ResponseEntity<Object>> call = Sinks.one();
+            calls.add(call);
+            return call.asMono();
+        });
+    }
+}
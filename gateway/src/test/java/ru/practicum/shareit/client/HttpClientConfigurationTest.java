@@ -0,0 +1,92 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(
+        properties = "shareit-server.http-client.max-per-route=7",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class HttpClientConfigurationTest {
+
+    private static final HttpServer SERVER = startServer();
+    private static final Set<Object> CONNECTIONS = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private UserClient userClient;
+    @Autowired
+    private BookingClient bookingClient;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void poolLimitsComeFromProperties() {
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.route.max.default")
+                .tag("httpclient", "shareit-server")
+                .gauge()
+                .value(), equalTo(7.0));
+    }
+
+    @Test
+    void clientsShareKeptAliveConnection() {
+        CONNECTIONS.clear();
+
+        userClient.getUsers().block();
+        bookingClient.getBookingsNoPagination(1L, BookingState.ALL).block();
+        userClient.getUser(1L).block();
+
+        assertThat(CONNECTIONS.size(), equalTo(1));
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "shareit-server")
+                .tag("state", "available")
+                .gauge()
+                .value(), equalTo(1.0));
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                CONNECTIONS.add(exchange.getRemoteAddress());
+                byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
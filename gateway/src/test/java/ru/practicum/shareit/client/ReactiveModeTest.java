@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+
+/**
+ * The fake server answers only when all requests have arrived, which the gateway can reach
+ * with four servlet threads only if it does not hold a thread per pending request. Every request asks
+ * for another user, identical GETs would be merged into one server call.
+ */
+@SpringBootTest(
+        properties = {"shareit-server.client=reactive", "server.tomcat.threads.max=4"},
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveModeTest {
+
+    private static final int REQUESTS = 40;
+    private static final String USERS = "[{\"id\":1,\"name\":\"Olga\"}]";
+    private static final CountDownLatch ARRIVED = new CountDownLatch(REQUESTS);
+    private static final AtomicBoolean ALL_PENDING_AT_ONCE = new AtomicBoolean(true);
+    private static final HttpServer SERVER = startServer();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void pendingRequestsDoNotHoldServletThreads() {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<HttpResponse<String>> responses = IntStream.range(0, REQUESTS)
+                .mapToObj(i -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/" + (i + 1)))
+                        .header("Accept", "application/json")
+                        .build())
+                .map(request -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .collect(Collectors.toList())
+                .stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+
+        assertThat(ALL_PENDING_AT_ONCE.get(), equalTo(true));
+        assertThat(responses.stream().map(HttpResponse::statusCode).collect(Collectors.toList()),
+                everyItem(equalTo(200)));
+        assertThat(responses.get(0).body(), equalTo(USERS));
+        assertThat(responses.get(0).headers().firstValue("Content-Type").orElse(null),
+                equalTo("application/json"));
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/", exchange -> {
+                ARRIVED.countDown();
+                try {
+                    if (!ARRIVED.await(10, TimeUnit.SECONDS)) {
+                        ALL_PENDING_AT_ONCE.set(false);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = USERS.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ResponseCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTimeToLive(Map.of("item", Duration.ofSeconds(5)));
+        cache = new ResponseCache(properties, meterRegistry, nanos::get);
+    }
+
+    @Test
+    void responseIsKeptForTimeToLiveOfRoute() {
+        get("item", "/1", 1L);
+        get("item", "/1", 1L);
+        assertThat(calls.get(), equalTo(1));
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        get("item", "/1", 1L);
+
+        assertThat(calls.get(), equalTo(2));
+    }
+
+    @Test
+    void usersAndUncachedRoutesAreNotShared() {
+        get("item", "/1", 1L);
+        get("item", "/1", 2L);
+        get("bookings", "/1", 1L);
+        get("bookings", "/1", 1L);
+
+        assertThat(calls.get(), equalTo(4));
+    }
+
+    @Test
+    void errorsAreNotCached() {
+        cache.get("item", "/1", 1L, null, () -> send(HttpStatus.NOT_FOUND)).block();
+        cache.get("item", "/1", 1L, null, () -> send(HttpStatus.NOT_FOUND)).block();
+
+        assertThat(calls.get(), equalTo(2));
+    }
+
+    @Test
+    void evictionDropsEntriesAndPendingReads() {
+        get("item", "/1", 1L);
+        get("item", "/2", 1L);
+        Sinks.One<ResponseEntity<Object>> pending = Sinks.one();
+        CompletableFuture<ResponseEntity<Object>> read = cache.get("item", "/1", 2L, null, pending::asMono)
+                .toFuture();
+
+        cache.evictPath("item", "/1");
+        pending.tryEmitValue(ResponseEntity.ok("old".getBytes()));
+        read.join();
+
+        get("item", "/1", 1L);
+        get("item", "/1", 2L);
+        get("item", "/2", 1L);
+        assertThat(calls.get(), equalTo(4));
+    }
+
+    @Test
+    void hitRatioIsPublished() {
+        get("item", "/1", 1L);
+        get("item", "/1", 1L);
+        get("item", "/1", 1L);
+        get("item", "/1", 1L);
+
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", ResponseCache.NAME).gauge().value(),
+                equalTo(0.75));
+        assertThat(meterRegistry.get("cache.size").tag("cache", ResponseCache.NAME).gauge().value(),
+                equalTo(1.0));
+    }
+
+    private void get(String route, String path, Long userId) {
+        cache.get(route, path, userId, null, () -> send(HttpStatus.OK)).block();
+    }
+
+    private Mono<ResponseEntity<Object>> send(HttpStatus status) {
+        return Mono.fromCallable(() -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(status).body("{}".getBytes());
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+class VirtualThreadsConfigurationTest {
+
+    static boolean virtualThreadsAvailable() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    @Test
+    @EnabledIf("virtualThreadsAvailable")
+    void requestsRunOnVirtualThreads() throws Exception {
+        try (ServletWebServerApplicationContext context = start()) {
+            Executor executor = ((TomcatWebServer) context.getWebServer()).getTomcat()
+                    .getConnector().getProtocolHandler().getExecutor();
+
+            CompletableFuture<Thread> worker = CompletableFuture.supplyAsync(Thread::currentThread, executor);
+
+            assertThat(Thread.class.getMethod("isVirtual").invoke(worker.get()), equalTo(true));
+        }
+    }
+
+    @Test
+    @DisabledIf("virtualThreadsAvailable")
+    void olderRuntimeFailsOnStartup() {
+        Exception exception = Assertions.assertThrows(Exception.class, VirtualThreadsConfigurationTest::start);
+
+        Throwable cause = exception;
+        while (!(cause instanceof IllegalStateException)) {
+            cause = cause.getCause();
+        }
+        assertThat(cause.getMessage(), containsString("needs Java 21 or newer"));
+    }
+
+    private static ServletWebServerApplicationContext start() {
+        return (ServletWebServerApplicationContext) new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0", "--shareit.virtual-threads.enabled=true", "--logging.level.root=WARN");
+    }
+}
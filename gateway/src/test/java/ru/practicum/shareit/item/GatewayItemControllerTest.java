@@ -6,19 +6,34 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.ItemCreateRequestDto;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(ItemImportReader.class)
 class GatewayItemControllerTest {
 
     @Autowired
@@ -81,4 +96,87 @@ class GatewayItemControllerTest {
         String message = Objects.requireNonNull(response.getResolvedException()).getMessage();
         assertTrue(message.contains("availability required"));
     }
+
+    @Test
+    @DisplayName("Если size не положительный, то поиск возвращает код 4xx")
+    void testSearchFailWrongSize() throws Exception {
+        mvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("size", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is4xxClientError());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("Если начало окна не раньше конца, то поиск свободных вещей возвращает код 400")
+    void testSearchAvailableFailStartAfterEnd() throws Exception {
+        mvc.perform(get("/items/search/available")
+                        .param("text", "дрель")
+                        .param("start", "2030-01-02T10:00:00")
+                        .param("end", "2030-01-01T10:00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("Если в пакетном запросе больше 100 id или id не положительный, то возвращается код 400")
+    void testGetItemsByIdsFailWrongIds() throws Exception {
+        String tooMany = IntStream.rangeClosed(1, 101)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("ids", tooMany)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("ids", "1,0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("Если строки импорта неверные, то возвращается код 400 с ошибками по строкам")
+    void testImportItemsFailWrongRows() throws Exception {
+        String lines = "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n"
+                + "{\"name\":\"\",\"description\":\"Пила\",\"available\":true}\n"
+                + "{\"name\":\"Молоток\"\n";
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(lines)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(ItemImportReader.NDJSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].error").value("name required"))
+                .andExpect(jsonPath("$.errors[1].row").value(3));
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @DisplayName("Если строки импорта верные, то они передаются на сервер одним запросом")
+    void testImportItems() throws Exception {
+        List<ItemCreateRequestDto> items = List.of(
+                new ItemCreateRequestDto("Дрель", "Простая дрель", true, null),
+                new ItemCreateRequestDto("Пила", "Острая пила", true, 1L));
+        when(itemClient.importItems(eq(1L), any())).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        mvc.perform(post("/items/import")
+                .header("X-Sharer-User-Id", 1)
+                .content(mapper.writeValueAsString(items))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        verify(itemClient).importItems(eq(1L), argThat(rows -> rows.size() == 2));
+    }
 }
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.item.dto.CommentRequestDto;
+import ru.practicum.shareit.item.dto.ItemCreateRequestDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+class ItemClientTest {
+
+    private final List<String> sent = new ArrayList<>();
+    private ItemClient client;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTimeToLive(Map.of(ItemClient.ITEM_ROUTE, Duration.ofMinutes(1),
+                ItemClient.SEARCH_ROUTE, Duration.ofMinutes(1)));
+        ServerExchange exchange = (method, path, headers, parameters, body) -> Mono.fromCallable(() -> {
+            sent.add(method + " " + path);
+            return ResponseEntity.ok("{}".getBytes(StandardCharsets.UTF_8));
+        });
+        client = new ItemClient(apiPrefix -> exchange, new ResponseCache(properties, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void searchIsSharedByAllUsersUntilItemIsSaved() {
+        client.searchItemByQuery("дрель", 0, 10, null).block();
+        client.searchItemByQuery("дрель", 0, 10, null).block();
+        client.saveNewItem(1L, new ItemCreateRequestDto("Дрель", "Простая дрель", true, null)).block();
+        client.searchItemByQuery("дрель", 0, 10, null).block();
+
+        assertThat(sent, contains(
+                "GET /search?text={text}&from={from}&size={size}",
+                "POST ",
+                "GET /search?text={text}&from={from}&size={size}"));
+    }
+
+    @Test
+    void searchWithoutPagingSendsOnlyText() {
+        client.searchItemByQuery("дрель", null, null, null).block();
+        client.searchItemByQuery("дрель", null, 10, null).block();
+
+        assertThat(sent, contains("GET /search?text={text}", "GET /search?text={text}&size={size}"));
+    }
+
+    @Test
+    void itemWritesEvictOnlyThatItem() {
+        client.getItem(1L, 1L).block();
+        client.getItem(1L, 2L).block();
+        client.updateItem(1L, 1L, new ItemCreateRequestDto("Дрель+", null, null, null)).block();
+        client.saveNewComment(new CommentRequestDto("Отличная дрель"), 2L, 2L).block();
+        client.getItem(1L, 1L).block();
+        client.getItem(1L, 2L).block();
+        client.getItem(1L, 2L).block();
+
+        assertThat(sent, contains(
+                "GET /1", "GET /2", "PATCH /1", "POST /2/comment", "GET /1", "GET /2"));
+    }
+}
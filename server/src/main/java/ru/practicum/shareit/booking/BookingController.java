@@ -5,10 +5,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.enumerated.BookingState;
+import ru.practicum.shareit.etag.ReadVersions;
+import ru.practicum.shareit.user.service.UserService;
 
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 
@@ -19,7 +25,12 @@ import java.util.List;
 @Slf4j
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final BookingService bookingService;
+    private final ReadVersions readVersions;
+    private final UserService userService;
 
     @PostMapping
     public ResponseEntity<BookingDto> create(@RequestBody BookingDto bookingDto,
@@ -43,16 +54,31 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getById(bookingId, userId));
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<BookingDto>> findAllById(
+            @RequestParam @Size(min = 1, max = 100) List<@Positive Long> ids,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(bookingService.getAllById(ids, userId));
+    }
+
     @GetMapping
     public ResponseEntity<List<BookingDto>> findAllByUserId(
             @RequestParam(required = false, defaultValue = "ALL") BookingState state,
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(required = false) Integer from,
-            @RequestParam(required = false) Integer size) {
-        if (from == null && size == null) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        if (notModified(request, userId, state)) {
+            return null;
+        }
+        if (from == null && size == null && cursor == null) {
             return ResponseEntity.ok(bookingService.findAllByUserId(userId, state));
         }
-        return ResponseEntity.ok(bookingService.findAllByUserId(userId, from, size));
+        if (from != null && cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllByUserId(userId, state, from, pageSize(size)));
+        }
+        return toResponse(bookingService.findPageByUserId(userId, state, cursor, pageSize(size)));
     }
 
     @GetMapping("/owner")
@@ -60,10 +86,39 @@ public class BookingController {
             @RequestParam(required = false, defaultValue = "ALL") BookingState state,
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(required = false) Integer from,
-            @RequestParam(required = false) Integer size) {
-        if (from == null && size == null) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        if (notModified(request, userId, state)) {
+            return null;
+        }
+        if (from == null && size == null && cursor == null) {
             return ResponseEntity.ok(bookingService.findAllByOwnerId(userId, state));
         }
-        return ResponseEntity.ok(bookingService.findAllByOwnerId(userId, from, size));
+        if (from != null && cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllByOwnerId(userId, state, from, pageSize(size)));
+        }
+        return toResponse(bookingService.findPageByOwnerId(userId, state, cursor, pageSize(size)));
+    }
+
+    /**
+     * Answers 304 to a matching {@code If-None-Match} of an existing user and sets the ETag header otherwise.
+     */
+    private boolean notModified(WebRequest request, long userId, BookingState state) {
+        userService.findUserIfExistOrElseThrowNotFound(userId);
+        String eTag = readVersions.bookingsETag(userId, state);
+        return eTag != null && request.checkNotModified(eTag);
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : size;
+    }
+
+    private static ResponseEntity<List<BookingDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
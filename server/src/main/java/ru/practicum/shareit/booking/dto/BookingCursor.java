@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Start date and id of the last booking on a page of a list ordered by start and id, newest first.
+ * Clients get it as an opaque token and pass it back to read the next page.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingCursor {
+    private final LocalDateTime start;
+    private final long id;
+
+    public String encode() {
+        String position = start + ";" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = position.split(";");
+            return new BookingCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid booking cursor: " + token);
+        }
+    }
+}
@@ -20,4 +20,12 @@ public class BookingDto {
     private ItemShortDto item;
     private UserShortDto booker;
     private BookingStatus status;
+
+    /**
+     * Constructor expression of the booking list queries, they select these columns only.
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Long itemId, String itemName, Long bookerId,
+                      BookingStatus status) {
+        this(id, start, end, itemId, new ItemShortDto(itemId, itemName), new UserShortDto(bookerId), status);
+    }
 }
@@ -9,9 +9,6 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 public class BookingMapper {
 
     public static BookingDto toDto(Booking booking) {
@@ -26,12 +23,6 @@ public class BookingMapper {
         );
     }
 
-    public static List<BookingDto> toDtoList(List<Booking> bookings) {
-        return bookings.stream()
-                .map(BookingMapper::toDto)
-                .collect(Collectors.toList());
-    }
-
     public static Booking toBooking(BookingDto bookingDto) {
         return new Booking(
                 bookingDto.getId(),
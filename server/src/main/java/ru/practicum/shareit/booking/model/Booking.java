@@ -4,6 +4,7 @@ import lombok.*;
 import ru.practicum.shareit.enumerated.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.etag.ReadVersionsListener;
 
 import javax.persistence.*;
 import javax.validation.constraints.Future;
@@ -16,11 +17,19 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(ReadVersionsListener.class)
 @Table(name = "BOOKING")
+@NamedEntityGraph(name = Booking.ITEM_GRAPH, attributeNodes = @NamedAttributeNode("item"))
 @Builder
 public class Booking {
+    /**
+     * The booking with its item, for the single booking endpoints that answer with the item name.
+     */
+    public static final String ITEM_GRAPH = "Booking.item";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
     @Column(name = "start_date", nullable = false)
     @FutureOrPresent
@@ -28,11 +37,13 @@ public class Booking {
     @Column(name = "end_date", nullable = false)
     @Future
     private LocalDateTime end;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", referencedColumnName = "id")
+    @ToString.Exclude
     private Item item;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", referencedColumnName = "id")
+    @ToString.Exclude
     private User booker;
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
@@ -1,48 +1,96 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.enumerated.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.schedule.BookingInterval;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId);
-
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long bookerId, LocalDateTime now, LocalDateTime now2);
-
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime now);
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(
-            Long bookerId, LocalDateTime now);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
-
-    List<Booking> findAllByItem_OwnerIdOrderByStartDesc(Long ownerID);
-
-    List<Booking> findAllByItem_OwnerIdOrderByStartDesc(Long ownerID, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerIdAndStartLessThanEqualAndEndGreaterThanOrderByStart(
-            Long ownerID, LocalDateTime now, LocalDateTime now1);
-
-    List<Booking> findAllByItem_OwnerIdAndEndLessThanEqual(Long ownerID, LocalDateTime now);
-
-    List<Booking> findAllByItem_OwnerIdAndStartGreaterThanEqualOrderByStartDesc(Long ownerID, LocalDateTime now);
-
-    List<Booking> findAllByItem_OwnerIdAndStatusOrderByStart(Long ownerID, BookingStatus status);
-
-    List<Booking> findAllByItem_OwnerIdAndStatus(Long ownerID, BookingStatus status);
-
-    Optional<Booking> findFirstByItem_Owner_IdAndItem_IdOrderByStart(Long ownerId, Long itemId);
-
-    Optional<Booking> findFirstByItem_OwnerIdAndIdOrderByStartDesc(Long ownerId, Long itemId);
-
-    List<Booking> findAllByItemIdAndBooker_IdAndEndBefore(Long itemId, Long bookerId, LocalDateTime now);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+
+    /**
+     * Selects the columns of {@link BookingDto} only, joined with the item for its name.
+     */
+    String SELECT_BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, i.id, i.name, b.booker.id, b.status) from Booking b join b.item i ";
+
+    @EntityGraph(Booking.ITEM_GRAPH)
+    Optional<Booking> findWithItemById(Long id);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = :bookerId order by b.start desc")
+    List<BookingDto> findAllByBookerIdOrderByStartDesc(@Param("bookerId") Long bookerId);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = :bookerId and b.start < :now and b.end > :now2 " +
+            "order by b.start desc")
+    List<BookingDto> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+            @Param("bookerId") Long bookerId, @Param("now") LocalDateTime now, @Param("now2") LocalDateTime now2);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = :bookerId and b.end < :now order by b.start desc")
+    List<BookingDto> findAllByBookerIdAndEndBeforeOrderByStartDesc(@Param("bookerId") Long bookerId,
+                                                                   @Param("now") LocalDateTime now);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = :bookerId and b.start > :now order by b.start desc")
+    List<BookingDto> findAllByBookerIdAndStartAfterOrderByStartDesc(
+            @Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_BOOKING_DTO + "where b.booker.id = :bookerId and b.status = :status order by b.start desc")
+    List<BookingDto> findAllByBookerIdAndStatusOrderByStartDesc(@Param("bookerId") Long bookerId,
+                                                                @Param("status") BookingStatus status);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :ownerId order by b.start desc")
+    List<BookingDto> findAllByItem_OwnerIdOrderByStartDesc(@Param("ownerId") Long ownerID);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :ownerId and b.start < :now and b.end > :now1 " +
+            "order by b.start")
+    List<BookingDto> findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStart(
+            @Param("ownerId") Long ownerID, @Param("now") LocalDateTime now, @Param("now1") LocalDateTime now1);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :ownerId and b.end <= :now")
+    List<BookingDto> findAllByItem_OwnerIdAndEndLessThanEqual(@Param("ownerId") Long ownerID,
+                                                              @Param("now") LocalDateTime now);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :ownerId and b.start >= :now order by b.start desc")
+    List<BookingDto> findAllByItem_OwnerIdAndStartGreaterThanEqualOrderByStartDesc(@Param("ownerId") Long ownerID,
+                                                                                   @Param("now") LocalDateTime now);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :ownerId and b.status = :status order by b.start")
+    List<BookingDto> findAllByItem_OwnerIdAndStatusOrderByStart(@Param("ownerId") Long ownerID,
+                                                                @Param("status") BookingStatus status);
+
+    @Query(SELECT_BOOKING_DTO + "where i.owner.id = :ownerId and b.status = :status")
+    List<BookingDto> findAllByItem_OwnerIdAndStatus(@Param("ownerId") Long ownerID,
+                                                    @Param("status") BookingStatus status);
+
+    @Query("select b from Booking b where b.item.id = :itemId and b.booker.id = :bookerId and b.end < :now")
+    List<Booking> findAllByItemIdAndBooker_IdAndEndBefore(@Param("itemId") Long itemId,
+                                                          @Param("bookerId") Long bookerId,
+                                                          @Param("now") LocalDateTime now);
+
+    @Query("select b from Booking b join fetch b.item i " +
+            "where b.id in :ids and (b.booker.id = :userId or i.owner.id = :userId)")
+    List<Booking> findAllByIdInVisibleTo(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query("select new ru.practicum.shareit.booking.schedule.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking b where b.status in :statuses")
+    List<BookingInterval> findIntervalsByStatusIn(@Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("select b from Booking b " +
+            "where b.item.id in :itemIds and b.start = (" +
+            "select max(b2.start) from Booking b2 where b2.item.id = b.item.id and b2.start <= :now)")
+    List<Booking> findLastBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now);
+
+    @Query("select b from Booking b " +
+            "where b.item.id in :itemIds and b.start = (" +
+            "select min(b2.start) from Booking b2 where b2.item.id = b.item.id and b2.start > :now)")
+    List<Booking> findNextBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Reads at most {@code limit} bookings starting at {@code offset} without running a count query.
+     * Selects the columns of {@link BookingDto} only, in one query joined with the item.
+     */
+    List<BookingDto> findWindow(Specification<Booking> specification, Sort sort, int offset, int limit);
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+@AllArgsConstructor
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    private final EntityManager em;
+
+    @Override
+    public List<BookingDto> findWindow(Specification<Booking> specification, Sort sort, int offset, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<Booking> root = query.from(Booking.class);
+        Path<Item> item = root.get("item");
+        query.select(cb.construct(BookingDto.class, root.get("id"), root.get("start"), root.get("end"),
+                        item.get("id"), item.get("name"), root.get("booker").get("id"), root.get("status")))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(toOrders(sort, root, cb));
+        return em.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enumerated.BookingState;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.exception.BookingNotFoundException;
+
+import java.time.LocalDateTime;
+
+public class BookingSpecifications {
+
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    public static Specification<Booking> bookerIs(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> itemOwnerIs(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> inState(BookingState state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return (root, query, cb) -> cb.conjunction();
+            case CURRENT:
+                return (root, query, cb) -> cb.and(
+                        cb.lessThan(root.get("start"), now),
+                        cb.greaterThan(root.get("end"), now));
+            case PAST:
+                return (root, query, cb) -> cb.lessThan(root.get("end"), now);
+            case FUTURE:
+                return (root, query, cb) -> cb.greaterThan(root.get("start"), now);
+            case WAITING:
+                return hasStatus(BookingStatus.WAITING);
+            case REJECTED:
+                return hasStatus(BookingStatus.REJECTED);
+            default:
+                throw new BookingNotFoundException("Bookings not found");
+        }
+    }
+
+    /**
+     * Bookings that come after the cursor in {@link #NEWEST_FIRST} order.
+     */
+    public static Specification<Booking> after(BookingCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("start"), cursor.getStart()),
+                cb.and(
+                        cb.equal(root.get("start"), cursor.getStart()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    private static Specification<Booking> hasStatus(BookingStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+}
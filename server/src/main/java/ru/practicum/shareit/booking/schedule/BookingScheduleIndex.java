@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking.schedule;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.exception.UnavailableBookingException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Waiting and approved bookings of every item kept as interval trees in the server process.
+ * A booking is checked against the tree of its item and saved while the tree is locked,
+ * so two concurrent requests cannot book the same item for overlapping dates.
+ * The lock is a {@link ReentrantLock} rather than a monitor, a virtual thread saving
+ * the booking through JDBC under it does not pin its carrier thread.
+ * The tree changes before the transaction of the booking commits, holding the dates against concurrent
+ * requests, and is put back when that transaction does not commit.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BookingScheduleIndex {
+
+    public static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, Schedule> schedules = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild(bookingRepository.findIntervalsByStatusIn(ACTIVE_STATUSES));
+    }
+
+    public void rebuild(Collection<BookingInterval> intervals) {
+        schedules.clear();
+        for (BookingInterval interval : intervals) {
+            Schedule schedule = scheduleOf(interval.getItemId());
+            schedule.lock.lock();
+            try {
+                schedule.tree.add(interval.getId(), interval.getStart(), interval.getEnd());
+            } finally {
+                schedule.lock.unlock();
+            }
+        }
+        log.info("Booking schedule is built for {} bookings", intervals.size());
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Schedule schedule = schedules.get(itemId);
+        if (schedule == null) {
+            return true;
+        }
+        schedule.lock.lock();
+        try {
+            return !schedule.tree.overlaps(start, end);
+        } finally {
+            schedule.lock.unlock();
+        }
+    }
+
+    /**
+     * Saves the booking with {@code saver} unless it becomes active and overlaps
+     * another active booking of the same item, then brings the schedule up to date.
+     */
+    public Booking save(Booking booking, Supplier<Booking> saver) {
+        Schedule schedule = scheduleOf(booking.getItem().getId());
+        schedule.lock.lock();
+        try {
+            boolean active = ACTIVE_STATUSES.contains(booking.getStatus());
+            if (active && !schedule.tree.contains(booking.getId())
+                    && schedule.tree.overlaps(booking.getStart(), booking.getEnd())) {
+                throw new UnavailableBookingException("Item is already booked for these dates");
+            }
+            boolean wasActive = schedule.tree.contains(booking.getId());
+            LocalDateTime start = booking.getStart();
+            LocalDateTime end = booking.getEnd();
+            Booking saved = saver.get();
+            if (active) {
+                schedule.tree.add(saved.getId(), saved.getStart(), saved.getEnd());
+            } else {
+                schedule.tree.remove(saved.getId());
+            }
+            Long id = saved.getId();
+            undoUnlessCommitted(() -> restore(schedule, id, wasActive, start, end));
+            return saved;
+        } finally {
+            schedule.lock.unlock();
+        }
+    }
+
+    private static void restore(Schedule schedule, Long id, boolean wasActive, LocalDateTime start, LocalDateTime end) {
+        schedule.lock.lock();
+        try {
+            if (wasActive) {
+                schedule.tree.add(id, start, end);
+            } else {
+                schedule.tree.remove(id);
+            }
+        } finally {
+            schedule.lock.unlock();
+        }
+    }
+
+    private static void undoUnlessCommitted(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    private Schedule scheduleOf(Long itemId) {
+        return schedules.computeIfAbsent(itemId, id -> new Schedule());
+    }
+
+    private static class Schedule {
+        private final IntervalTree tree = new IntervalTree();
+        private final ReentrantLock lock = new ReentrantLock();
+    }
+}
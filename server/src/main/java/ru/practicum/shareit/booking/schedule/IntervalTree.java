@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.schedule;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Treap of half-open [start, end) intervals ordered by start and id.
+ * Every node keeps the latest end of its subtree, so an overlap check visits one path of the tree.
+ * Not thread safe, {@link BookingScheduleIndex} guards the tree of every item with that item's {@code ReentrantLock}.
+ */
+class IntervalTree {
+
+    private final Map<Long, LocalDateTime> starts = new HashMap<>();
+    private Node root;
+
+    boolean contains(Long id) {
+        return id != null && starts.containsKey(id);
+    }
+
+    int size() {
+        return starts.size();
+    }
+
+    void add(long id, LocalDateTime start, LocalDateTime end) {
+        remove(id);
+        Node[] parts = split(root, start, id);
+        root = merge(merge(parts[0], new Node(id, start, end)), parts[1]);
+        starts.put(id, start);
+    }
+
+    void remove(Long id) {
+        LocalDateTime start = id == null ? null : starts.remove(id);
+        if (start != null) {
+            root = remove(root, start, id);
+        }
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null && node.maxEnd.isAfter(start)) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else if (node.start.isBefore(end)) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static Node remove(Node node, LocalDateTime start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(start, id, node);
+        if (order == 0) {
+            return merge(node.left, node.right);
+        }
+        if (order < 0) {
+            node.left = remove(node.left, start, id);
+        } else {
+            node.right = remove(node.right, start, id);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Splits the tree into nodes ordered before (start, id) and the rest.
+     */
+    private static Node[] split(Node node, LocalDateTime start, long id) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(start, id, node) > 0) {
+            Node[] parts = split(node.right, start, id);
+            node.right = parts[0];
+            node.update();
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, start, id);
+        node.left = parts[1];
+        node.update();
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int compare(LocalDateTime start, long id, Node node) {
+        int order = start.compareTo(node.start);
+        return order != 0 ? order : Long.compare(id, node.id);
+    }
+
+    private static class Node {
+        private final long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
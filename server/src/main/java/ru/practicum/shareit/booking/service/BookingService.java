@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.lang.Nullable;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.enumerated.BookingState;
 
 import java.util.List;
@@ -14,11 +16,21 @@ public interface BookingService {
 
     BookingDto getById(Long bookingId, Long userId);
 
+    /**
+     * Bookings with the given ids in the order of the ids. Unknown ids and bookings the user neither made
+     * nor owns the item of are skipped.
+     */
+    List<BookingDto> getAllById(List<Long> bookingIds, Long userId);
+
     List<BookingDto> findAllByUserId(Long userId, BookingState stat);
 
     List<BookingDto> findAllByOwnerId(Long ownerId, BookingState state);
 
-    List<BookingDto> findAllByUserId(Long userId, Integer from, Integer size);
+    List<BookingDto> findAllByUserId(Long userId, BookingState state, Integer from, Integer size);
+
+    List<BookingDto> findAllByOwnerId(Long ownerId, BookingState state, Integer from, Integer size);
+
+    BookingPage findPageByUserId(Long userId, BookingState state, @Nullable String cursor, Integer size);
 
-    List<BookingDto> findAllByOwnerId(Long userId, Integer from, Integer size);
+    BookingPage findPageByOwnerId(Long ownerId, BookingState state, @Nullable String cursor, Integer size);
 }
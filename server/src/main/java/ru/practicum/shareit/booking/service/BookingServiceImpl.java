@@ -2,13 +2,17 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
 import ru.practicum.shareit.enumerated.BookingState;
 import ru.practicum.shareit.enumerated.BookingStatus;
 import ru.practicum.shareit.exception.BookingNotFoundException;
@@ -23,10 +27,16 @@ import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.*;
 
 @Service
+@Transactional
 @AllArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
@@ -34,6 +44,7 @@ public class BookingServiceImpl implements BookingService {
     private BookingRepository bookingRepository;
     private UserServiceImpl userService;
     private ItemService itemService;
+    private BookingScheduleIndex bookingScheduleIndex;
 
     @Override
     public BookingDto create(BookingDto bookingDto, Long userId) {
@@ -55,12 +66,13 @@ public class BookingServiceImpl implements BookingService {
         booking.setBooker(user);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        // flushed in the saver, a failing insert must not reach the schedule; the transaction commits later
+        return BookingMapper.toDto(bookingScheduleIndex.save(booking, () -> bookingRepository.saveAndFlush(booking)));
     }
 
     @Override
     public BookingDto setBookingStatus(Long bookingId, Long userId, boolean approved) {
-        Optional<Booking> booking = bookingRepository.findById(bookingId);
+        Optional<Booking> booking = bookingRepository.findWithItemById(bookingId);
         if (booking.isEmpty()) {
             throw new BookingNotFoundException("Booking not found " + bookingId);
         }
@@ -78,12 +90,13 @@ public class BookingServiceImpl implements BookingService {
         } else {
             bookingFound.setStatus(BookingStatus.REJECTED);
         }
-        return BookingMapper.toDto(bookingRepository.save(bookingFound));
+        bookingScheduleIndex.save(bookingFound, () -> bookingRepository.saveAndFlush(bookingFound));
+        return BookingMapper.toDto(bookingFound);
     }
 
     @Override
     public BookingDto getById(Long bookingId, Long userId) {
-        Optional<Booking> booking = bookingRepository.findById(bookingId);
+        Optional<Booking> booking = bookingRepository.findWithItemById(bookingId);
         if (booking.isEmpty()) {
             log.error(String.format("No booking with id %d is found", bookingId));
             throw new BookingNotFoundException(String.format("Booking with id %d is not found", bookingId));
@@ -99,71 +112,129 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    public List<BookingDto> getAllById(List<Long> bookingIds, Long userId) {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInVisibleTo(bookingIds, userId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        return bookingIds.stream()
+                .distinct()
+                .map(bookings::get)
+                .filter(Objects::nonNull)
+                .map(BookingMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> findAllByUserId(Long userId, BookingState state) {
         userService.findUserIfExistOrElseThrowNotFound(userId);
         LocalDateTime now = LocalDateTime.now();
 
         switch (state) {
             case ALL:
-                return BookingMapper.toDtoList(bookingRepository.findAllByBookerIdOrderByStartDesc(userId));
+                return bookingRepository.findAllByBookerIdOrderByStartDesc(userId);
             case CURRENT:
-                return BookingMapper.toDtoList(bookingRepository
+                return bookingRepository
                         .findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                                userId, now, now));
+                                userId, now, now);
             case PAST:
-                return BookingMapper.toDtoList(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(
-                        userId, now));
+                return bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(
+                        userId, now);
             case FUTURE:
-                return BookingMapper.toDtoList(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
-                        userId, now));
+                return bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
+                        userId, now);
             case WAITING:
-                return BookingMapper.toDtoList(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.WAITING));
+                return bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
+                        userId, BookingStatus.WAITING);
             case REJECTED:
-                return BookingMapper.toDtoList(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.REJECTED));
+                return bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
+                        userId, BookingStatus.REJECTED);
             default:
                 throw new BookingNotFoundException("Bookings not found");
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> findAllByOwnerId(Long ownerId, BookingState state) {
         userService.findUserIfExistOrElseThrowNotFound(ownerId);
         LocalDateTime now = LocalDateTime.now();
         switch (state) {
             case ALL:
-                return BookingMapper.toDtoList(bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(ownerId));
+                return bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(ownerId);
             case CURRENT:
-                return BookingMapper.toDtoList(bookingRepository
-                        .findAllByItem_OwnerIdAndStartLessThanEqualAndEndGreaterThanOrderByStart(ownerId, now, now));
+                return bookingRepository
+                        .findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStart(ownerId, now, now);
             case PAST:
-                return BookingMapper.toDtoList(bookingRepository
-                        .findAllByItem_OwnerIdAndEndLessThanEqual(ownerId, now));
+                return bookingRepository
+                        .findAllByItem_OwnerIdAndEndLessThanEqual(ownerId, now);
             case FUTURE:
-                return BookingMapper.toDtoList(bookingRepository
-                        .findAllByItem_OwnerIdAndStartGreaterThanEqualOrderByStartDesc(ownerId, now));
+                return bookingRepository
+                        .findAllByItem_OwnerIdAndStartGreaterThanEqualOrderByStartDesc(ownerId, now);
             case WAITING:
-                return BookingMapper.toDtoList(bookingRepository
-                        .findAllByItem_OwnerIdAndStatusOrderByStart(ownerId, BookingStatus.WAITING));
+                return bookingRepository
+                        .findAllByItem_OwnerIdAndStatusOrderByStart(ownerId, BookingStatus.WAITING);
             case REJECTED:
-                return BookingMapper.toDtoList(bookingRepository
-                        .findAllByItem_OwnerIdAndStatus(ownerId, BookingStatus.REJECTED));
+                return bookingRepository
+                        .findAllByItem_OwnerIdAndStatus(ownerId, BookingStatus.REJECTED);
             default:
                 throw new BookingNotFoundException("Bookings not found");
         }
     }
 
     @Override
-    public List<BookingDto> findAllByUserId(Long userId, Integer from, Integer size) {
-        Pageable page = PageRequest.of((int) from / size, size);
-        return BookingMapper.toDtoList(bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page));
+    @Transactional(readOnly = true)
+    public List<BookingDto> findAllByUserId(Long userId, BookingState state, Integer from, Integer size) {
+        userService.findUserIfExistOrElseThrowNotFound(userId);
+        checkPageBounds(from, size);
+        return bookingRepository.findWindow(
+                bookerIs(userId).and(inState(state, LocalDateTime.now())), NEWEST_FIRST, from, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findAllByOwnerId(Long ownerId, BookingState state, Integer from, Integer size) {
+        userService.findUserIfExistOrElseThrowNotFound(ownerId);
+        checkPageBounds(from, size);
+        return bookingRepository.findWindow(
+                itemOwnerIs(ownerId).and(inState(state, LocalDateTime.now())), NEWEST_FIRST, from, size);
     }
 
     @Override
-    public List<BookingDto> findAllByOwnerId(Long userId, Integer from, Integer size) {
-        Pageable page = PageRequest.of((int) from / size, size);
-        return BookingMapper.toDtoList(bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(userId, page));
+    @Transactional(readOnly = true)
+    public BookingPage findPageByUserId(Long userId, BookingState state, @Nullable String cursor, Integer size) {
+        userService.findUserIfExistOrElseThrowNotFound(userId);
+        return findPage(bookerIs(userId), state, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPage findPageByOwnerId(Long ownerId, BookingState state, @Nullable String cursor, Integer size) {
+        userService.findUserIfExistOrElseThrowNotFound(ownerId);
+        return findPage(itemOwnerIs(ownerId), state, cursor, size);
+    }
+
+    private BookingPage findPage(Specification<Booking> party, BookingState state, String cursor, Integer size) {
+        checkPageBounds(0, size);
+        Specification<Booking> specification = party.and(inState(state, LocalDateTime.now()));
+        if (cursor != null) {
+            specification = specification.and(after(BookingCursor.decode(cursor)));
+        }
+        List<BookingDto> bookings = bookingRepository.findWindow(specification, NEWEST_FIRST, 0, size);
+        String nextCursor = null;
+        if (bookings.size() == size) {
+            BookingDto last = bookings.get(bookings.size() - 1);
+            nextCursor = new BookingCursor(last.getStart(), last.getId()).encode();
+        }
+        return new BookingPage(bookings, nextCursor);
+    }
+
+    private void checkPageBounds(Integer from, Integer size) {
+        if (from < 0 || size <= 0) {
+            throw new IllegalArgumentException("from should not be negative and size should be positive");
+        }
     }
 
     private void checkDates(LocalDateTime start, LocalDateTime end) {
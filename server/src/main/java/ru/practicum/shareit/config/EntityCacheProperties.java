@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limits of the Hibernate second-level cache regions, keyed by the region name
+ * used in the {@code @Cache} annotation of the entity.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.entity-cache")
+public class EntityCacheProperties {
+
+    private boolean enabled;
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+        private long maximumSize = 10000;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
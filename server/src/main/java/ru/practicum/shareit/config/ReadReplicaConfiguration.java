@@ -0,0 +1,85 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.etag.ReadVersions;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read replica, {@code shareit.datasource.replica.jdbc-url} is set: transactions declared
+ * {@code @Transactional(readOnly = true)} read from the replica, everything else, Flyway included, uses the primary.
+ * The replica may lag behind. {@link ReadVersions} follows the commits on the primary, so a booking or request list
+ * read from a lagging replica would go out under the ETag of newer data, and the user would not see their own write.
+ * For {@code shareit.datasource.replica-lag} after a write that changes an ETag of the user
+ * of a request, its read-only transactions stay on the primary.
+ * Both pools are Hikari pools, the replica one takes its settings from {@code shareit.datasource.replica}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.jdbc-url")
+public class ReadReplicaConfiguration {
+
+    private static final String SHARER_USER_ID = "X-Sharer-User-Id";
+
+    /**
+     * The pool Spring Boot would make of {@code spring.datasource}, made here as the replica replaces it.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Read-only pool, it starts without the replica and a failing connection comes back
+     * after {@code connection-timeout}, so the reads can fall back to the primary.
+     */
+    @Bean
+    @ConfigurationProperties("shareit.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setInitializationFailTimeout(-1);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 ReadVersions readVersions,
+                                 @Value("${shareit.datasource.replica-retry-after:30s}") Duration retryAfter,
+                                 @Value("${shareit.datasource.replica-lag:5s}") Duration replicaLag) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource(properties),
+                replicaDataSource(), retryAfter, () -> readVersions.writtenWithin(sharerUserId(), replicaLag)));
+    }
+
+    /**
+     * User of the request served on this thread, null outside a request or without a valid header.
+     */
+    @Nullable
+    private static Long sharerUserId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        String userId = ((ServletRequestAttributes) attributes).getRequest().getHeader(SHARER_USER_ID);
+        try {
+            return userId == null ? null : Long.valueOf(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Gives the connections of read-only transactions from the replica and all others from the primary.
+ * A replica that fails to give a connection is left alone for {@code retryAfter}, reads go to the primary meanwhile.
+ * Reads for which {@code primaryRequired} holds, such as those of a recent write the replica may lack, use
+ * the primary as well; it is asked when the connection is taken, after the caller has looked at the versions.
+ * The transaction is known only once it has begun, so the data source is used behind
+ * a {@link LazyConnectionDataSourceProxy}, which takes the connection at the first statement.
+ */
+@Slf4j
+class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryAfterNanos;
+    private final BooleanSupplier primaryRequired;
+    private volatile long replicaFailedAt;
+    private volatile boolean replicaFailed;
+
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration retryAfter,
+                               BooleanSupplier primaryRequired) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.primaryRequired = primaryRequired;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicaResting()
+                || primaryRequired.getAsBoolean()) {
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaFailed = false;
+            return connection;
+        } catch (SQLException e) {
+            replicaFailedAt = System.nanoTime();
+            replicaFailed = true;
+            log.warn("Replica is not available, reading from the primary for {} s: {}",
+                    Duration.ofNanos(retryAfterNanos).toSeconds(), e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+    }
+
+    private boolean replicaResting() {
+        return replicaFailed && System.nanoTime() - replicaFailedAt < retryAfterNanos;
+    }
+}
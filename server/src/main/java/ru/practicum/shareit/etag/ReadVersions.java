@@ -0,0 +1,96 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.enumerated.BookingState;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version stamps of the booking and request lists kept in the server process, like the booking schedule.
+ * Entity writes bump them after commit through {@link ReadVersionsListener}, controllers turn them into
+ * strong ETags and answer a matching {@code If-None-Match} with 304 before anything is loaded.
+ * Every start begins a new epoch, so ETags issued by a previous run never match. The time of the last bump
+ * is kept as well, a read replica serves the lists only once it had the time to catch up with it.
+ */
+@Component
+public class ReadVersions {
+
+    /**
+     * States filtered against the current time, their lists change without any write.
+     */
+    private static final Set<BookingState> TIME_DEPENDENT_STATES =
+            EnumSet.of(BookingState.CURRENT, BookingState.PAST, BookingState.FUTURE);
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<Long, AtomicLong> bookings = new ConcurrentHashMap<>();
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final Map<Long, Long> bookingsWrittenAt = new ConcurrentHashMap<>();
+    private volatile Long itemsWrittenAt;
+    private volatile Long requestsWrittenAt;
+
+    /**
+     * ETag of the bookings of the user as booker or as owner, item names are part of them,
+     * so item writes change it too. Time dependent states get no ETag.
+     */
+    @Nullable
+    public String bookingsETag(long userId, BookingState state) {
+        if (TIME_DEPENDENT_STATES.contains(state)) {
+            return null;
+        }
+        AtomicLong version = bookings.get(userId);
+        return eTag(userId, version == null ? 0 : version.get(), items.get());
+    }
+
+    /**
+     * ETag of the requests seen by the user together with the items answering them.
+     */
+    public String requestsETag(long userId) {
+        return eTag(userId, requests.get(), items.get());
+    }
+
+    /**
+     * Whether a write that changes an ETag of the user was committed within {@code period}: one of the bookings
+     * or the user itself, any item or any request. Without a user only the item and request writes count.
+     */
+    public boolean writtenWithin(@Nullable Long userId, Duration period) {
+        long now = System.nanoTime();
+        return within(userId == null ? null : bookingsWrittenAt.get(userId), now, period)
+                || within(itemsWrittenAt, now, period)
+                || within(requestsWrittenAt, now, period);
+    }
+
+    void bookingWritten(Long bookerId, Long ownerId) {
+        userWritten(bookerId);
+        userWritten(ownerId);
+    }
+
+    void userWritten(Long userId) {
+        bookingsWrittenAt.put(userId, System.nanoTime());
+        bookings.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    void itemWritten() {
+        itemsWrittenAt = System.nanoTime();
+        items.incrementAndGet();
+    }
+
+    void requestWritten() {
+        requestsWrittenAt = System.nanoTime();
+        requests.incrementAndGet();
+    }
+
+    private static boolean within(@Nullable Long writtenAt, long now, Duration period) {
+        return writtenAt != null && now - writtenAt < period.toNanos();
+    }
+
+    private String eTag(long userId, long version, long itemsVersion) {
+        return "\"" + epoch + "-" + userId + "-" + version + "-" + itemsVersion + "\"";
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.etag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Bumps {@link ReadVersions} when a booking, item, request or user is written. The bump waits for the commit,
+ * a reader that sees the new version must also see the new rows. Created by Hibernate through Spring,
+ * contexts without {@link ReadVersions}, such as JPA test slices, are not tracked.
+ */
+@RequiredArgsConstructor
+public class ReadVersionsListener {
+
+    private final ObjectProvider<ReadVersions> readVersionsProvider;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void written(Object entity) {
+        ReadVersions readVersions = readVersionsProvider.getIfAvailable();
+        if (readVersions == null) {
+            return;
+        }
+        if (entity instanceof Booking) {
+            Booking booking = (Booking) entity;
+            Long bookerId = booking.getBooker().getId();
+            Long ownerId = booking.getItem().getOwner().getId();
+            afterCommit(() -> readVersions.bookingWritten(bookerId, ownerId));
+        } else if (entity instanceof Item) {
+            afterCommit(readVersions::itemWritten);
+        } else if (entity instanceof ItemRequest) {
+            afterCommit(readVersions::requestWritten);
+        } else if (entity instanceof User) {
+            Long userId = ((User) entity).getId();
+            afterCommit(() -> readVersions.userWritten(userId));
+        }
+    }
+
+    private static void afterCommit(Runnable bump) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump.run();
+            }
+        });
+    }
+}
@@ -2,24 +2,34 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.search.ItemSearchPage;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 
 @RestController
 @RequestMapping("/items")
 @AllArgsConstructor
 @Slf4j
+@Validated
 public class ItemController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private ItemService itemService;
 
     @PostMapping
@@ -31,6 +41,15 @@ public class ItemController {
         return ResponseEntity.ok(itemSaved);
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<ItemImportResult> importItems(@RequestBody List<ItemDto> itemDtos,
+                                                        @RequestHeader("X-Sharer-User-Id") Long userId) {
+        ItemImportResult result = itemService.importItems(itemDtos, userId);
+        log.info(String.format("%d items are imported, %d rows are rejected",
+                itemDtos.size() - result.getErrors().size(), result.getErrors().size()));
+        return ResponseEntity.ok(result);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<ItemDto> update(@RequestBody ItemDto itemDto,
                                           @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -52,9 +71,35 @@ public class ItemController {
         return ResponseEntity.ok(itemService.getItemsByUserId(userId));
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ItemBookingCommentDto>> getItemsByIds(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam @Size(min = 1, max = 100) List<@Positive Long> ids) {
+        return ResponseEntity.ok(itemService.getByItemIds(ids, userId));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Set<ItemDto>> searchItemsByQuery(@RequestParam String text) {
-        return ResponseEntity.ok(itemService.search(text));
+    public ResponseEntity<List<ItemDto>> searchItemsByQuery(
+            @RequestParam String text,
+            @RequestParam(required = false) Integer from,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        if (from == null && size == null && cursor == null) {
+            return ResponseEntity.ok(itemService.search(text));
+        }
+        return toResponse(itemService.search(text, cursor, from == null ? 0 : from,
+                size == null ? DEFAULT_PAGE_SIZE : size));
+    }
+
+    @GetMapping("/search/available")
+    public ResponseEntity<List<ItemDto>> searchFreeItemsByQuery(
+            @RequestParam String text,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false, defaultValue = "0") Integer from,
+            @RequestParam(required = false, defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor) {
+        return toResponse(itemService.searchFree(text, start, end, cursor, from, size));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -65,4 +110,12 @@ public class ItemController {
         log.info("Comment created" + commentSaved.getId());
         return ResponseEntity.ok(commentSaved);
     }
+
+    private static ResponseEntity<List<ItemDto>> toResponse(ItemSearchPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
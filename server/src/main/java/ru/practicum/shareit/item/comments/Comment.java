@@ -14,17 +14,24 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "comments")
+@NamedEntityGraph(name = Comment.AUTHOR_GRAPH, attributeNodes = @NamedAttributeNode("author"))
 @Builder
 public class Comment {
+    /**
+     * The comment with its author, whose name is part of {@link CommentDto}.
+     */
+    public static final String AUTHOR_GRAPH = "Comment.author";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
     @Column(name = "comment_text", nullable = false)
     private String text;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
     private User author;
     private LocalDateTime creationDate;
@@ -1,10 +1,19 @@
 package ru.practicum.shareit.item.comments;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     List<Comment> findAllByItemId(Long itemId);
+
+    @Query("select c from Comment c where c.item.id in :itemIds order by c.id")
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    List<Comment> findAllByItemIds(@Param("itemIds") Collection<Long> itemIds);
 }
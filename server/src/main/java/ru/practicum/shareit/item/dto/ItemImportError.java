@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of an item import that was not saved, rows are counted from 1.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportError {
+    private int row;
+    private String error;
+}
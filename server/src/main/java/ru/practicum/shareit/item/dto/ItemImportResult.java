@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ids of the imported items in the order of the rows, {@code null} for the rows listed in errors.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportResult {
+    private List<Long> ids;
+    private List<ItemImportError> errors;
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.etag.ReadVersionsListener;
 
 import javax.persistence.*;
 
@@ -13,11 +16,20 @@ import javax.persistence.*;
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(ReadVersionsListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item")
 @Table(name = "item", schema = "public")
+@NamedEntityGraph(name = Item.OWNER_GRAPH, attributeNodes = @NamedAttributeNode("owner"))
 @Builder
 public class Item {
+    /**
+     * The item with its owner, for everything mapped to {@link ru.practicum.shareit.item.dto.ItemDto}.
+     */
+    public static final String OWNER_GRAPH = "Item.owner";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     private Long id;
     @Column(name = "name", nullable = false, length = 250)
     private String name;
@@ -25,10 +37,12 @@ public class Item {
     private String description;
     @Column(name = "is_available", nullable = false)
     private Boolean isAvailable;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
+    @ToString.Exclude
     private User owner;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
+    @ToString.Exclude
     private ItemRequest itemRequest;
 }
@@ -1,15 +1,25 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
 
     List<Item> findAllByOwnerId(Long userId);
 
-    Set<Item> findAllByNameContainingIgnoreCaseAndIsAvailableTrueOrDescriptionContainingIgnoreCaseAndAndIsAvailableTrue(
-            String text, String text2);
+    @Query("select i from Item i")
+    @EntityGraph(Item.OWNER_GRAPH)
+    List<Item> findAllWithOwner();
+
+    @EntityGraph(Item.OWNER_GRAPH)
+    Optional<Item> findWithOwnerById(Long id);
+
+    @EntityGraph(Item.OWNER_GRAPH)
+    List<Item> findAllByItemRequestIdIn(Collection<Long> requestIds);
 }
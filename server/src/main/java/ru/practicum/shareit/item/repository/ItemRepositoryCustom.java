@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+
+    /**
+     * Reads at most {@code limit} available items matching {@code text} in name or description,
+     * with ids above {@code afterId}, starting at {@code offset}. Items come in id order with their owners.
+     */
+    List<Item> searchAvailable(String text, long afterId, int offset, int limit);
+
+    /**
+     * Same as {@link #searchAvailable}, without items that have a booking in {@code statuses}
+     * overlapping [start, end).
+     */
+    List<Item> searchAvailableFree(String text, LocalDateTime start, LocalDateTime end,
+                                   Collection<BookingStatus> statuses, long afterId, int offset, int limit);
+}
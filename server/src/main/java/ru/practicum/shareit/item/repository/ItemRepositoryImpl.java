@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.AllArgsConstructor;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@AllArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private static final String AVAILABLE_MATCHING = "select i from Item i where i.isAvailable = true " +
+            "and i.id > :afterId " +
+            "and (upper(i.name) like upper(concat('%', :text, '%')) " +
+            "or upper(i.description) like upper(concat('%', :text, '%'))) ";
+    private static final String NOT_BOOKED = "and not exists (select b.id from Booking b where b.item = i " +
+            "and b.status in :statuses and b.start < :end and b.end > :start) ";
+    private static final String ID_ORDER = "order by i.id";
+
+    private final EntityManager em;
+
+    @Override
+    public List<Item> searchAvailable(String text, long afterId, int offset, int limit) {
+        return window(query(AVAILABLE_MATCHING + ID_ORDER, text, afterId), offset, limit);
+    }
+
+    @Override
+    public List<Item> searchAvailableFree(String text, LocalDateTime start, LocalDateTime end,
+                                          Collection<BookingStatus> statuses, long afterId, int offset, int limit) {
+        TypedQuery<Item> query = query(AVAILABLE_MATCHING + NOT_BOOKED + ID_ORDER, text, afterId)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setParameter("statuses", statuses);
+        return window(query, offset, limit);
+    }
+
+    private TypedQuery<Item> query(String jpql, String text, long afterId) {
+        return em.createQuery(jpql, Item.class)
+                .setHint("javax.persistence.fetchgraph", em.getEntityGraph(Item.OWNER_GRAPH))
+                .setParameter("text", text)
+                .setParameter("afterId", afterId);
+    }
+
+    private static List<Item> window(TypedQuery<Item> query, int offset, int limit) {
+        return query.setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
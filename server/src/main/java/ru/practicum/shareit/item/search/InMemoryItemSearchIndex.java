@@ -0,0 +1,278 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index over item names and descriptions kept in the server process.
+ * Every suffix of every token is indexed, so a query token matches any part of a word,
+ * the same way the LIKE '%text%' query does. All query tokens have to match.
+ * Writes reach the index after their transaction commits, a rolled back item is never found.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemSearchIndex implements ItemSearchIndex {
+
+    private static final int NAME_EXACT_SCORE = 6;
+    private static final int NAME_PREFIX_SCORE = 4;
+    private static final int NAME_INFIX_SCORE = 2;
+    private static final int DESCRIPTION_EXACT_SCORE = 3;
+    private static final int DESCRIPTION_PREFIX_SCORE = 2;
+    private static final int DESCRIPTION_INFIX_SCORE = 1;
+    private static final Comparator<ScoredItem> RELEVANCE = Comparator.comparingInt(ScoredItem::getScore).reversed()
+            .thenComparing(scored -> scored.getItem().getId());
+
+    private final ItemRepository itemRepository;
+    private final BookingScheduleIndex bookingScheduleIndex;
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild(itemRepository.findAllWithOwner());
+    }
+
+    @Override
+    public ItemSearchPage search(String text, @Nullable String cursor, int from, int size) {
+        return search(text, itemId -> true, cursor, from, size);
+    }
+
+    /**
+     * Joins the hits with the booking schedules in memory, the filter runs before paging.
+     */
+    @Override
+    public ItemSearchPage searchFree(String text, LocalDateTime start, LocalDateTime end,
+                                     @Nullable String cursor, int from, int size) {
+        return search(text, itemId -> bookingScheduleIndex.isFree(itemId, start, end), cursor, from, size);
+    }
+
+    private ItemSearchPage search(String text, LongPredicate filter, @Nullable String cursor, int from, int size) {
+        List<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return ItemSearchPage.empty();
+        }
+        SearchCursor after = cursor == null ? null : SearchCursor.decode(cursor);
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = null;
+            for (String queryToken : queryTokens) {
+                Set<Long> matches = new HashSet<>();
+                postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false)
+                        .values()
+                        .forEach(matches::addAll);
+                if (candidates == null) {
+                    candidates = matches;
+                } else {
+                    candidates.retainAll(matches);
+                }
+                if (candidates.isEmpty()) {
+                    return ItemSearchPage.empty();
+                }
+            }
+            Stream<ScoredItem> ranked = candidates.stream()
+                    .map(documents::get)
+                    .filter(document -> document.getItem().getAvailable())
+                    .filter(document -> filter.test(document.getItem().getId()))
+                    .map(document -> new ScoredItem(document.getItem(), score(document, queryTokens)))
+                    .sorted(RELEVANCE);
+            if (after != null) {
+                ranked = ranked.filter(scored -> after.isBefore(scored.getScore(), scored.getItem().getId()));
+            } else {
+                ranked = ranked.skip(from);
+            }
+            List<ScoredItem> hits = ranked.limit(size).collect(Collectors.toList());
+            String nextCursor = null;
+            if (hits.size() == size) {
+                ScoredItem last = hits.get(hits.size() - 1);
+                nextCursor = new SearchCursor(last.getScore(), last.getItem().getId()).encode();
+            }
+            List<ItemDto> items = hits.stream()
+                    .map(ScoredItem::getItem)
+                    .map(InMemoryItemSearchIndex::copy)
+                    .collect(Collectors.toList());
+            return new ItemSearchPage(items, nextCursor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<Item> items) {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            items.stream().map(InMemoryItemSearchIndex::document).forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index is built for {} items", items.size());
+    }
+
+    /**
+     * The document is made at once, the item may no longer be readable once the transaction is over.
+     */
+    @Override
+    public void index(Item item) {
+        IndexedItem document = document(item);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(item.getId());
+                add(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void updateOwner(UserDto owner) {
+        afterCommit(() -> replaceOwner(owner));
+    }
+
+    private void replaceOwner(UserDto owner) {
+        lock.writeLock().lock();
+        try {
+            documents.values().stream()
+                    .map(IndexedItem::getItem)
+                    .filter(item -> Objects.equals(item.getOwner().getId(), owner.getId()))
+                    .forEach(item -> item.setOwner(owner));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(IndexedItem document) {
+        Long itemId = document.getItem().getId();
+        documents.put(itemId, document);
+        for (String suffix : suffixes(document)) {
+            postings.computeIfAbsent(suffix, key -> new HashSet<>()).add(itemId);
+        }
+    }
+
+    private static IndexedItem document(Item item) {
+        return new IndexedItem(ItemMapper.toDto(item), tokenize(item.getName()), tokenize(item.getDescription()));
+    }
+
+    private static void afterCommit(Runnable write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.run();
+            }
+        });
+    }
+
+    private void remove(Long itemId) {
+        IndexedItem document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String suffix : suffixes(document)) {
+            Set<Long> ids = postings.get(suffix);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(suffix);
+                }
+            }
+        }
+    }
+
+    private static Set<String> suffixes(IndexedItem document) {
+        Set<String> suffixes = new HashSet<>();
+        for (List<String> tokens : List.of(document.getNameTokens(), document.getDescriptionTokens())) {
+            for (String token : tokens) {
+                for (int i = 0; i < token.length(); i++) {
+                    suffixes.add(token.substring(i));
+                }
+            }
+        }
+        return suffixes;
+    }
+
+    private static int score(IndexedItem document, List<String> queryTokens) {
+        int score = 0;
+        for (String queryToken : queryTokens) {
+            score += fieldScore(document.getNameTokens(), queryToken,
+                    NAME_EXACT_SCORE, NAME_PREFIX_SCORE, NAME_INFIX_SCORE);
+            score += fieldScore(document.getDescriptionTokens(), queryToken,
+                    DESCRIPTION_EXACT_SCORE, DESCRIPTION_PREFIX_SCORE, DESCRIPTION_INFIX_SCORE);
+        }
+        return score;
+    }
+
+    private static int fieldScore(List<String> tokens, String queryToken, int exact, int prefix, int infix) {
+        int best = 0;
+        for (String token : tokens) {
+            if (token.equals(queryToken)) {
+                return exact;
+            } else if (token.startsWith(queryToken)) {
+                best = Math.max(best, prefix);
+            } else if (token.contains(queryToken)) {
+                best = Math.max(best, infix);
+            }
+        }
+        return best;
+    }
+
+    private static ItemDto copy(ItemDto item) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner(), item.getRequestId());
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class IndexedItem {
+        private final ItemDto item;
+        private final List<String> nameTokens;
+        private final List<String> descriptionTokens;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ScoredItem {
+        private final ItemDto item;
+        private final int score;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Full-text search over item names and descriptions.
+ * Implementations return only available items, most relevant first, ties broken by item id.
+ * A page starts right after {@code cursor} when it is given, otherwise {@code from} hits are skipped.
+ * {@link #searchFree} also drops items with a waiting or approved booking overlapping [start, end).
+ */
+public interface ItemSearchIndex {
+
+    ItemSearchPage search(String text, @Nullable String cursor, int from, int size);
+
+    ItemSearchPage searchFree(String text, LocalDateTime start, LocalDateTime end,
+                              @Nullable String cursor, int from, int size);
+
+    void rebuild(Collection<Item> items);
+
+    void index(Item item);
+
+    void updateOwner(UserDto owner);
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Answers every search with a LIKE query against the database, nothing is kept in memory.
+ * Hits are not ranked and come in item id order.
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database")
+public class RepositoryItemSearchIndex implements ItemSearchIndex {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public ItemSearchPage search(String text, @Nullable String cursor, int from, int size) {
+        return toPage(itemRepository.searchAvailable(text, afterId(cursor), offset(cursor, from), size), size);
+    }
+
+    @Override
+    public ItemSearchPage searchFree(String text, LocalDateTime start, LocalDateTime end,
+                                     @Nullable String cursor, int from, int size) {
+        return toPage(itemRepository.searchAvailableFree(text, start, end, BookingScheduleIndex.ACTIVE_STATUSES,
+                afterId(cursor), offset(cursor, from), size), size);
+    }
+
+    private static long afterId(@Nullable String cursor) {
+        return cursor == null ? 0 : SearchCursor.decode(cursor).getId();
+    }
+
+    private static int offset(@Nullable String cursor, int from) {
+        return cursor == null ? from : 0;
+    }
+
+    private static ItemSearchPage toPage(List<Item> hits, int size) {
+        List<ItemDto> items = hits.stream()
+                .map(ItemMapper::toDto)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (items.size() == size) {
+            nextCursor = new SearchCursor(0, items.get(items.size() - 1).getId()).encode();
+        }
+        return new ItemSearchPage(items, nextCursor);
+    }
+
+    @Override
+    public void rebuild(Collection<Item> items) {
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void updateOwner(UserDto owner) {
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last returned hit in a search ordered by score descending, then by item id.
+ * Clients get it as an opaque token and pass it back to read the next page.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchCursor {
+    private final int score;
+    private final long id;
+
+    public boolean isBefore(int otherScore, long otherId) {
+        return otherScore < score || (otherScore == score && otherId > id);
+    }
+
+    public String encode() {
+        String position = score + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = position.split(":");
+            return new SearchCursor(Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + token);
+        }
+    }
+}
@@ -1,25 +1,47 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.lang.Nullable;
 import ru.practicum.shareit.item.dto.ItemBookingCommentDto;
 import ru.practicum.shareit.item.comments.Comment;
 import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
 
 public interface ItemService {
 
     ItemDto create(ItemDto itemDto, Long userId);
 
+    /**
+     * Saves the items of the user in JDBC batches. Rows answering an unknown request are skipped and reported.
+     */
+    ItemImportResult importItems(List<ItemDto> itemDtos, Long userId);
+
     ItemDto update(ItemDto itemDto, Long userId, Long itemId);
 
     ItemBookingCommentDto getByItemId(Long itemId, Long userId);
 
     List<ItemBookingCommentDto> getItemsByUserId(Long userId);
 
-    Set<ItemDto> search(String text);
+    /**
+     * Items with the given ids in the order of the ids, unknown ids are skipped.
+     * Last and next bookings are filled in only for the items the user owns.
+     */
+    List<ItemBookingCommentDto> getByItemIds(List<Long> itemIds, Long userId);
+
+    /**
+     * Every hit at once, for clients that send no paging parameters.
+     */
+    List<ItemDto> search(String text);
+
+    ItemSearchPage search(String text, @Nullable String cursor, Integer from, Integer size);
+
+    ItemSearchPage searchFree(String text, LocalDateTime start, LocalDateTime end,
+                              @Nullable String cursor, Integer from, Integer size);
 
     CommentDto createComment(CommentDto commentDto, Long userId, Long itemId);
 
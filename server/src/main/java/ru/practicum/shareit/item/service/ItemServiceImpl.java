@@ -5,7 +5,9 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.dto.ItemBookingCommentDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
@@ -25,15 +27,21 @@ import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.comments.CommentMapper;
 import ru.practicum.shareit.item.comments.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchPage;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional
 @Getter
 @Setter
 @AllArgsConstructor
@@ -45,6 +53,7 @@ public class ItemServiceImpl implements ItemService {
     private BookingRepository bookingRepository;
     private CommentRepository commentRepository;
     private ItemRequestRepository itemRequestRepository;
+    private ItemSearchIndex itemSearchIndex;
 
     @Override
     public ItemDto create(ItemDto itemDto, Long userId) {
@@ -54,19 +63,60 @@ public class ItemServiceImpl implements ItemService {
         if (requestId == null) {
             Item item = ItemMapper.toItemWithNORequest(itemDto);
             Item itemSaved = itemRepository.save(item);
+            itemSearchIndex.index(itemSaved);
             return ItemMapper.toDto(itemSaved);
         }
         Item item = ItemMapper.toItemWithRequest(itemDto);
         Optional<ItemRequest> request = itemRequestRepository.findById(requestId);
         request.ifPresent(item::setItemRequest);
         Item itemSaved = itemRepository.save(item);
+        itemSearchIndex.index(itemSaved);
         return ItemMapper.toDto(itemSaved);
     }
 
+    @Override
+    public ItemImportResult importItems(List<ItemDto> itemDtos, Long userId) {
+        UserDto userDto = userService.findUserIfExistOrElseThrowNotFound(userId);
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> knownRequestIds = itemRequestRepository.findAllById(requestIds).stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+
+        List<Item> items = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        List<ItemImportError> errors = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            itemDto.setOwner(userDto);
+            Long requestId = itemDto.getRequestId();
+            if (requestId == null) {
+                items.add(ItemMapper.toItemWithNORequest(itemDto));
+            } else if (knownRequestIds.contains(requestId)) {
+                items.add(ItemMapper.toItemWithRequest(itemDto));
+            } else {
+                errors.add(new ItemImportError(i + 1, "Request not found - id: " + requestId));
+                continue;
+            }
+            rows.add(i);
+        }
+
+        List<Item> itemsSaved = itemRepository.saveAll(items);
+        Long[] ids = new Long[itemDtos.size()];
+        for (int i = 0; i < itemsSaved.size(); i++) {
+            itemSearchIndex.index(itemsSaved.get(i));
+            ids[rows.get(i)] = itemsSaved.get(i).getId();
+        }
+        return new ItemImportResult(Arrays.asList(ids), errors);
+    }
+
     @Override
     public ItemDto update(ItemDto itemDto, Long userId, Long itemId) {
         userService.findUserIfExistOrElseThrowNotFound(userId);
-        Item item = getItemById(itemId);
+        Item item = itemRepository.findWithOwnerById(itemId)
+                .orElseThrow(() -> new ItemNotFoundException("Item not found - id: " + itemId));
         if (!Objects.equals(item.getOwner().getId(), userId)) {
             throw new ForbiddenAccessException("User has no access to edit");
         }
@@ -75,34 +125,29 @@ public class ItemServiceImpl implements ItemService {
         Optional.ofNullable(itemDto.getDescription()).ifPresent(item::setDescription);
         Optional.ofNullable(itemDto.getAvailable()).ifPresent(item::setIsAvailable);
 
-        return ItemMapper.toDto(itemRepository.save(item));
+        itemRepository.save(item);
+        itemSearchIndex.index(item);
+        return ItemMapper.toDto(item);
     }
 
     @Override
     public ItemBookingCommentDto getByItemId(Long itemId, Long userId) {
         userService.findUserIfExistOrElseThrowNotFound(userId);
-        getItemById(itemId);
-        Item item = getItemById(itemId);
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new ItemNotFoundException("Item not found - id: " + itemId));
+        List<Long> itemIds = List.of(itemId);
         BookingShortDto lastBooking = null;
         BookingShortDto nextBooking = null;
-        Optional<Booking> last = bookingRepository.findFirstByItem_Owner_IdAndItem_IdOrderByStart(userId, itemId);
-        if (last.isPresent()) {
-            lastBooking = BookingMapper.toShortDto(last.get());
-        }
-        Optional<Booking> next = bookingRepository.findFirstByItem_OwnerIdAndIdOrderByStartDesc(userId, itemId);
-        if (next.isPresent()) {
-            nextBooking = BookingMapper.toShortDto(next.get());
+        if (Objects.equals(item.getOwner().getId(), userId)) {
+            LocalDateTime now = LocalDateTime.now();
+            lastBooking = mapBookingsByItemId(bookingRepository.findLastBookingsByItemIds(itemIds, now)).get(itemId);
+            nextBooking = mapBookingsByItemId(bookingRepository.findNextBookingsByItemIds(itemIds, now)).get(itemId);
         }
-
-        List<Comment> comments = getAllByItemId(itemId);
-        if (comments.isEmpty()) {
-            return ItemMapper.toBookingCommentDto(item, lastBooking, nextBooking, Collections.emptyList());
-        }
-        List<CommentDto> commentsDto = comments.stream()
+        List<CommentDto> comments = commentRepository.findAllByItemIds(itemIds).stream()
                 .map(CommentMapper::toDto)
                 .collect(Collectors.toList());
 
-        return ItemMapper.toBookingCommentDto(item, lastBooking, nextBooking, commentsDto);
+        return ItemMapper.toBookingCommentDto(item, lastBooking, nextBooking, comments);
     }
 
     @Override
@@ -112,43 +157,90 @@ public class ItemServiceImpl implements ItemService {
         if (items.isEmpty()) {
             throw new ItemNotFoundException("User has no items");
         }
-        List<ItemBookingCommentDto> itemsWithBooking = new ArrayList<>();
-        for (Item item : items) {
-            BookingShortDto lastBooking = null;
-            BookingShortDto nextBooking = null;
-            Optional<Booking> last = bookingRepository.findFirstByItem_Owner_IdAndItem_IdOrderByStart(userId, item.getId());
-            Optional<Booking> next = bookingRepository.findFirstByItem_OwnerIdAndIdOrderByStartDesc(userId, item.getId());
-            if (last.isPresent()) {
-                lastBooking = BookingMapper.toShortDto(last.get());
-            }
-            if (next.isPresent()) {
-                nextBooking = BookingMapper.toShortDto(next.get());
-            }
-            List<Comment> comments = getAllByItemId(item.getId());
-            if (comments.isEmpty()) {
-                itemsWithBooking.add(ItemMapper.toBookingCommentDto(item, lastBooking, nextBooking, null));
-            } else {
-                List<CommentDto> commentsDto = comments.stream()
-                        .map(CommentMapper::toDto)
-                        .collect(Collectors.toList());
-                itemsWithBooking.add(ItemMapper.toBookingCommentDto(item, lastBooking, nextBooking, commentsDto));
-            }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortDto> lastBookings = mapBookingsByItemId(
+                bookingRepository.findLastBookingsByItemIds(itemIds, now));
+        Map<Long, BookingShortDto> nextBookings = mapBookingsByItemId(
+                bookingRepository.findNextBookingsByItemIds(itemIds, now));
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
+
+        return items.stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .map(item -> ItemMapper.toBookingCommentDto(item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        comments.get(item.getId())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemBookingCommentDto> getByItemIds(List<Long> itemIds, Long userId) {
+        userService.findUserIfExistOrElseThrowNotFound(userId);
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ownedIds = items.values().stream()
+                .filter(item -> Objects.equals(item.getOwner().getId(), userId))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortDto> lastBookings = ownedIds.isEmpty() ? Map.of()
+                : mapBookingsByItemId(bookingRepository.findLastBookingsByItemIds(ownedIds, now));
+        Map<Long, BookingShortDto> nextBookings = ownedIds.isEmpty() ? Map.of()
+                : mapBookingsByItemId(bookingRepository.findNextBookingsByItemIds(ownedIds, now));
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIds(items.keySet()).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
+
+        return itemIds.stream()
+                .distinct()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(item -> ItemMapper.toBookingCommentDto(item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        comments.get(item.getId())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> search(String text) {
+        return search(text, null, 0, Integer.MAX_VALUE).getItems();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemSearchPage search(String text, @Nullable String cursor, Integer from, Integer size) {
+        checkPageBounds(from, size);
+        if (StringUtils.isBlank(text)) {
+            return ItemSearchPage.empty();
         }
-        return itemsWithBooking.stream()
-                .sorted((o1, o2) -> (int) (o1.getId() - o2.getId())).collect(Collectors.toList());
+        return itemSearchIndex.search(text, cursor, from, size);
     }
 
     @Override
-    public Set<ItemDto> search(String text) {
+    @Transactional(readOnly = true)
+    public ItemSearchPage searchFree(String text, LocalDateTime start, LocalDateTime end,
+                                     @Nullable String cursor, Integer from, Integer size) {
+        checkPageBounds(from, size);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("start should be before end");
+        }
         if (StringUtils.isBlank(text)) {
-            return Collections.emptySet();
+            return ItemSearchPage.empty();
         }
-        return itemRepository
-                .findAllByNameContainingIgnoreCaseAndIsAvailableTrueOrDescriptionContainingIgnoreCaseAndAndIsAvailableTrue(
-                        text, text)
-                .stream()
-                .map(ItemMapper::toDto)
-                .collect(Collectors.toSet());
+        return itemSearchIndex.searchFree(text, start, end, cursor, from, size);
     }
 
     @Override
@@ -181,4 +273,15 @@ public class ItemServiceImpl implements ItemService {
         }
         return item.get();
     }
+
+    private Map<Long, BookingShortDto> mapBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), BookingMapper::toShortDto, (b1, b2) -> b1));
+    }
+
+    private void checkPageBounds(Integer from, Integer size) {
+        if (from < 0 || size <= 0) {
+            throw new IllegalArgumentException("from should not be negative and size should be positive");
+        }
+    }
 }
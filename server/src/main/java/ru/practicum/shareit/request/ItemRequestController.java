@@ -5,8 +5,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.etag.ReadVersions;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
 
@@ -18,6 +21,8 @@ import java.util.List;
 public class ItemRequestController {
 
     private final ItemRequestService requestService;
+    private final ReadVersions readVersions;
+    private final UserService userService;
 
     @PostMapping
     public ResponseEntity<ItemRequestDto> create(@RequestBody ItemRequestDto itemRequestDto,
@@ -28,7 +33,11 @@ public class ItemRequestController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<ItemRequestDto>> getItemRequestByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public ResponseEntity<List<ItemRequestDto>> getItemRequestByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                       WebRequest request) {
+        if (notModified(request, userId)) {
+            return null;
+        }
         return ResponseEntity.ok(requestService.getAllByUserId(userId));
     }
 
@@ -36,13 +45,29 @@ public class ItemRequestController {
     public ResponseEntity<List<ItemRequestDto>> getAllRequestsByPages(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(required = false, defaultValue = "0") Integer from,
-            @RequestParam(required = false, defaultValue = "20") Integer size) {
+            @RequestParam(required = false, defaultValue = "20") Integer size,
+            WebRequest request) {
+        if (notModified(request, userId)) {
+            return null;
+        }
         return ResponseEntity.ok(requestService.findAllByRequestorIdNot(userId, from, size));
     }
 
     @GetMapping("/{requestId}")
     public ResponseEntity<ItemRequestDto> getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                             @PathVariable Long requestId) {
+                                                             @PathVariable Long requestId,
+                                                             WebRequest request) {
+        if (notModified(request, userId)) {
+            return null;
+        }
         return ResponseEntity.ok(requestService.getByItemRequestId(userId, requestId));
     }
+
+    /**
+     * Answers 304 to a matching {@code If-None-Match} of an existing user and sets the ETag header otherwise.
+     */
+    private boolean notModified(WebRequest request, Long userId) {
+        userService.findUserIfExistOrElseThrowNotFound(userId);
+        return request.checkNotModified(readVersions.requestsETag(userId));
+    }
 }
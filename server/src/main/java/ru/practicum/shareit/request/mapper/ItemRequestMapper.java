@@ -3,19 +3,25 @@ package ru.practicum.shareit.request.mapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
 
     public static ItemRequestDto toDtoWithItems(ItemRequest itemRequest) {
+        return toDtoWithItems(itemRequest, itemRequest.getItems());
+    }
+
+    public static ItemRequestDto toDtoWithItems(ItemRequest itemRequest, List<Item> items) {
         return new ItemRequestDto(
                 itemRequest.getId(),
                 itemRequest.getDescription(),
                 itemRequest.getCreated(),
-                itemRequest.getItems().stream().map(ItemMapper::toDtoWithRequest).collect(Collectors.toList())
+                items.stream().map(ItemMapper::toDtoWithRequest).collect(Collectors.toList())
         );
     }
 
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.request.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.etag.ReadVersionsListener;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -14,15 +17,27 @@ import java.util.List;
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(ReadVersionsListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "request")
 @Table(name = "REQUEST")
+@NamedEntityGraph(name = ItemRequest.ITEMS_GRAPH,
+        attributeNodes = @NamedAttributeNode(value = "items", subgraph = "items"),
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("owner")))
 @Builder
 public class ItemRequest {
+    /**
+     * The request with the items answering it and their owners, for
+     * {@link ru.practicum.shareit.request.dto.ItemRequestDto} with items.
+     */
+    public static final String ITEMS_GRAPH = "ItemRequest.items";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_seq")
+    @SequenceGenerator(name = "request_seq", sequenceName = "request_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false, length = 250)
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id", nullable = false)
     private User requestor;
     @Column(name = "creation_date", nullable = false)
@@ -1,16 +1,21 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository
         extends JpaRepository<ItemRequest, Long>, PagingAndSortingRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequestorId(Long userId);
+    @EntityGraph(ItemRequest.ITEMS_GRAPH)
+    Optional<ItemRequest> findWithItemsById(Long id);
+
+    List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(Long userId);
 
     List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(Long userId, Pageable pageable);
 }
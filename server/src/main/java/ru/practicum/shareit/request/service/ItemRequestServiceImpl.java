@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.service.UserService;
@@ -14,15 +17,18 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional
 @AllArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private ItemRequestRepository itemRequestRepository;
     private UserService userService;
+    private ItemRepository itemRepository;
 
     public ItemRequestDto create(ItemRequestDto itemRequestDto, Long userId) {
         userService.findUserIfExistOrElseThrowNotFound(userId);
@@ -32,16 +38,18 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllByUserId(Long userId) {
         userService.findUserIfExistOrElseThrowNotFound(userId);
-        List<ItemRequest> requests = itemRequestRepository.findAllByRequestorId(userId);
-        return mapToDtoRequestsWithItemsAndWithout(requests);
+        List<ItemRequest> requests = itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(userId);
+        return mapToDtoWithItems(requests);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequestDto getByItemRequestId(Long userId, Long id) {
         userService.findUserIfExistOrElseThrowNotFound(userId);
-        Optional<ItemRequest> request = itemRequestRepository.findById(id);
+        Optional<ItemRequest> request = itemRequestRepository.findWithItemsById(id);
         if (request.isEmpty()) {
             throw new RequestNotFoundException(String.format("Request %d not found", id));
         }
@@ -53,26 +61,28 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> findAllByRequestorIdNot(Long userId, Integer from, Integer size) {
         Pageable page = PageRequest.of(from / size, size);
         List<ItemRequest> requests = itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(userId, page);
-        return mapToDtoRequestsWithItemsAndWithout(requests);
+        return mapToDtoWithItems(requests);
     }
 
-    private List<ItemRequestDto> mapToDtoRequestsWithItemsAndWithout(List<ItemRequest> requests) {
-        List<ItemRequestDto> totalRequests = new ArrayList<>();
-        List<ItemRequestDto> requestsNoItems = requests
+    /**
+     * Maps the requests in their order with the items answering them, read with their owners in one query
+     * for the whole list instead of a collection load per request.
+     */
+    private List<ItemRequestDto> mapToDtoWithItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequestId = itemRepository.findAllByItemRequestIdIn(requestIds)
                 .stream()
-                .filter(r -> r.getItems().isEmpty())
-                .map(ItemRequestMapper::toDto)
-                .collect(Collectors.toList());
-        List<ItemRequestDto> requestWithItems = requests
+                .collect(Collectors.groupingBy(item -> item.getItemRequest().getId()));
+        return requests
                 .stream()
-                .filter(r -> !r.getItems().isEmpty())
-                .map(ItemRequestMapper::toDtoWithItems)
+                .map(r -> ItemRequestMapper.toDtoWithItems(r, itemsByRequestId.getOrDefault(r.getId(), List.of())))
                 .collect(Collectors.toList());
-        totalRequests.addAll(requestsNoItems);
-        totalRequests.addAll(requestWithItems);
-        return totalRequests;
     }
 }
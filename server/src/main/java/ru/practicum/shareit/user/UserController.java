@@ -3,10 +3,13 @@ package ru.practicum.shareit.user;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 
@@ -14,6 +17,7 @@ import java.util.List;
 @RequestMapping(path = "/users")
 @AllArgsConstructor
 @Slf4j
+@Validated
 public class UserController {
 
     private final UserService userService;
@@ -46,6 +50,12 @@ public class UserController {
         return ResponseEntity.ok(userService.getAll());
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserDto>> findAllById(
+            @RequestParam @Size(min = 1, max = 100) List<@Positive Long> ids) {
+        return ResponseEntity.ok(userService.getAllById(ids));
+    }
+
     @DeleteMapping("/{userId}")
     public long removeUser(@PathVariable Long userId) {
         log.info("Remove user {}", userId);
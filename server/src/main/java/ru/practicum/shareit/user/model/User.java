@@ -1,6 +1,9 @@
 package ru.practicum.shareit.user.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.etag.ReadVersionsListener;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -11,11 +14,14 @@ import javax.validation.constraints.Email;
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(ReadVersionsListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 @Table(name = "shareit_user")
 @Builder
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shareit_user_seq")
+    @SequenceGenerator(name = "shareit_user_seq", sequenceName = "shareit_user_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false, length = 250)
     private String name;
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of users that are known to exist, so user checks on item, booking
+ * and request calls do not hit the database. Hits and misses are published as the
+ * {@code cache.gets} metric tagged {@code cache=users}.
+ * The loader runs on the calling thread outside the cache's map lock, a virtual thread
+ * waiting on the database there does not pin its carrier thread.
+ */
+@Component
+public class UserCache {
+
+    private final AsyncCache<Long, UserDto> users;
+
+    public UserCache(@Value("${shareit.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.user-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                     MeterRegistry meterRegistry) {
+        users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    /**
+     * Returns a copy of the cached user, loading it with {@code loader} on a miss.
+     * Nothing is cached when the loader throws.
+     */
+    public UserDto get(Long userId, Function<Long, UserDto> loader) {
+        CompletableFuture<UserDto> loading = new CompletableFuture<>();
+        CompletableFuture<UserDto> cached = users.get(userId, (id, executor) -> loading);
+        if (cached == loading) {
+            try {
+                loading.complete(loader.apply(userId));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return copy(join(cached));
+    }
+
+    /**
+     * Returns copies of the cached users among {@code userIds}, the missing ones are loaded with one call
+     * of {@code loader}. Users the loader does not return are left out and not cached.
+     */
+    public Map<Long, UserDto> getAll(Iterable<Long> userIds, Function<Set<Long>, Map<Long, UserDto>> loader) {
+        Map<Long, UserDto> cached = join(users.getAll(userIds,
+                (missing, executor) -> CompletableFuture.completedFuture(loader.apply(toSet(missing)))));
+        return cached.values().stream()
+                .map(UserCache::copy)
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+    }
+
+    /**
+     * Drops the user once the current transaction commits, so a check made meanwhile cannot load
+     * the old row back into the cache.
+     */
+    public void evict(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            users.synchronous().invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                users.synchronous().invalidate(userId);
+            }
+        });
+    }
+
+    private static UserDto copy(UserDto user) {
+        return new UserDto(user.getId(), user.getName(), user.getEmail());
+    }
+
+    private static Set<Long> toSet(Iterable<? extends Long> userIds) {
+        Set<Long> set = new HashSet<>();
+        userIds.forEach(set::add);
+        return set;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
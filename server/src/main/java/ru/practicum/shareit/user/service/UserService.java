@@ -14,6 +14,11 @@ public interface UserService {
 
     List<UserDto> getAll();
 
+    /**
+     * Users with the given ids in the order of the ids, unknown ids are skipped.
+     */
+    List<UserDto> getAllById(List<Long> ids);
+
     long removeUser(long id);
 
     UserDto findUserIfExistOrElseThrowNotFound(Long userId);
@@ -3,22 +3,30 @@ package ru.practicum.shareit.user.service;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional
 @AllArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final UserCache userCache;
 
     public UserDto create(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
@@ -35,7 +43,10 @@ public class UserServiceImpl implements UserService {
 
         Optional.ofNullable(user.getName()).ifPresent(userToUpdate.get()::setName);
         Optional.ofNullable(user.getEmail()).ifPresent(userToUpdate.get()::setEmail);
-        return UserMapper.toDto(userRepository.save(userToUpdate.get()));
+        UserDto userUpdated = UserMapper.toDto(userRepository.save(userToUpdate.get()));
+        userCache.evict(userUpdated.getId());
+        itemSearchIndex.updateOwner(userUpdated);
+        return userUpdated;
     }
 
     public UserDto getById(Long userId) {
@@ -53,13 +64,28 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    public List<UserDto> getAllById(List<Long> ids) {
+        Map<Long, UserDto> users = userCache.getAll(ids, this::findAllById);
+        return ids.stream()
+                .distinct()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     public long removeUser(long id) {
         log.info("Remove user from repository {}", id);
         userRepository.deleteById(id);
+        userCache.evict(id);
         return id;
     }
 
     public UserDto findUserIfExistOrElseThrowNotFound(Long userId) {
-        return getById(userId);
+        return userCache.get(userId, this::getById);
+    }
+
+    private Map<Long, UserDto> findAllById(Set<Long> ids) {
+        return userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, UserMapper::toDto));
     }
 }
@@ -1,19 +1,23 @@
-DROP TABLE IF EXISTS SHAREIT_USER cascade;
-DROP TABLE IF EXISTS ITEM cascade;
-DROP TABLE IF EXISTS BOOKING cascade;
-DROP TABLE IF EXISTS COMMENTS cascade;
-DROP TABLE IF EXISTS REQUEST cascade;
+-- Tables of a new database. Databases made by the former schema.sql bootstrap already have them
+-- and are baselined at this version, see spring.flyway.baseline-on-migrate.
+
+-- ids come from sequences, Hibernate reserves 50 at a time and batches the inserts
+CREATE SEQUENCE IF NOT EXISTS SHAREIT_USER_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS REQUEST_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ITEM_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS BOOKING_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS COMMENTS_SEQ START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS SHAREIT_USER
 (
-    id    bigint GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id    BIGINT PRIMARY KEY,
     name  VARCHAR(50) NOT NULL,
     email VARCHAR(50) NOT NULL UNIQUE
 );
 
 CREATE TABLE IF NOT EXISTS REQUEST
 (
-    id            BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id            BIGINT PRIMARY KEY,
     description   VARCHAR                     NOT NULL,
     requestor_id  BIGINT                      NOT NULL REFERENCES SHAREIT_USER (id),
     creation_date TIMESTAMP WITHOUT TIME ZONE NOT NULL
@@ -21,7 +25,7 @@ CREATE TABLE IF NOT EXISTS REQUEST
 
 CREATE TABLE IF NOT EXISTS ITEM
 (
-    id           BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id           BIGINT PRIMARY KEY,
     name         VARCHAR(250) NOT NULL,
     description  VARCHAR(250) NOT NULL,
     is_available BOOLEAN      NOT NULL,
@@ -31,7 +35,7 @@ CREATE TABLE IF NOT EXISTS ITEM
 
 CREATE TABLE IF NOT EXISTS BOOKING
 (
-    id         BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id         BIGINT PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id    BIGINT                      NOT NULL REFERENCES ITEM (id),
@@ -41,10 +45,9 @@ CREATE TABLE IF NOT EXISTS BOOKING
 
 CREATE TABLE IF NOT EXISTS COMMENTS
 (
-    id            BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id            BIGINT PRIMARY KEY,
     comment_text  VARCHAR                     NOT NULL,
     item_id       BIGINT                      NOT NULL REFERENCES ITEM (id),
     author_id     BIGINT                      NOT NULL REFERENCES SHAREIT_USER (id),
     creation_date TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
-
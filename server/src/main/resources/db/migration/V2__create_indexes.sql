@@ -0,0 +1,14 @@
+-- Indexes of the list queries, databases made by the former schema.sql bootstrap may have some of them.
+
+-- booker lists: filter by booker (and status), newest first; the id column makes keyset paging index-only
+CREATE INDEX IF NOT EXISTS BOOKING_BOOKER_START_IDX ON BOOKING (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS BOOKING_BOOKER_STATUS_START_IDX ON BOOKING (booker_id, status, start_date DESC);
+-- owner lists join ITEM by owner, last/next booking lookups and comment checks go by item
+CREATE INDEX IF NOT EXISTS BOOKING_ITEM_START_IDX ON BOOKING (item_id, start_date);
+CREATE INDEX IF NOT EXISTS BOOKING_ITEM_BOOKER_END_IDX ON BOOKING (item_id, booker_id, end_date);
+CREATE INDEX IF NOT EXISTS ITEM_OWNER_IDX ON ITEM (owner_id);
+CREATE INDEX IF NOT EXISTS ITEM_REQUEST_IDX ON ITEM (request_id);
+CREATE INDEX IF NOT EXISTS COMMENTS_ITEM_IDX ON COMMENTS (item_id);
+CREATE INDEX IF NOT EXISTS REQUEST_REQUESTOR_IDX ON REQUEST (requestor_id);
+-- requests of other users, newest first, are paged without sorting the whole table
+CREATE INDEX IF NOT EXISTS REQUEST_CREATED_IDX ON REQUEST (creation_date DESC);
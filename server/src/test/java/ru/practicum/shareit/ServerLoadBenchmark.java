@@ -0,0 +1,165 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the server on Tomcat's thread pool and on virtual threads and prints the throughput and latency
+ * percentiles of {@code GET /items/{id}} for every number of concurrent clients. Every client sends
+ * its next request as soon as the previous one is answered. The virtual thread rows need Java 21.
+ * Run with the main method from the IDE or {@code mvn -pl server test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=ru.practicum.shareit.ServerLoadBenchmark -Dexec.args="1000,10000 20"},
+ * the arguments are the numbers of clients and the seconds each of them is measured, the rest are passed
+ * to the server, e.g. {@code --spring.datasource.url=jdbc:postgresql://localhost:5432/shareit} to measure
+ * against PostgreSQL instead of an in-memory H2 database.
+ */
+public class ServerLoadBenchmark {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int MAX_CONNECTIONS = 20000;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        int[] clients = args.length > 0
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1000, 10000};
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 20);
+        List<String> serverArgs = args.length > 2 ? Arrays.asList(args).subList(2, args.length) : List.of();
+        new ServerLoadBenchmark().run(clients, duration, serverArgs);
+    }
+
+    private void run(int[] clients, Duration duration, List<String> serverArgs) throws Exception {
+        System.out.printf("%-9s %8s %10s %10s %10s %8s%n", "threads", "clients", "req/s", "p50 ms", "p99 ms", "errors");
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            if (virtual && Runtime.version().feature() < 21) {
+                System.out.printf("%-9s needs Java 21, running on %s%n", mode, Runtime.version());
+                continue;
+            }
+            try (ServletWebServerApplicationContext context = start(virtual, serverArgs)) {
+                HttpRequest item = seed("http://localhost:" + context.getWebServer().getPort());
+                for (int count : clients) {
+                    measure(item, Math.min(count, 100), Duration.ofSeconds(2));
+                    Result result = measure(item, count, duration);
+                    System.out.printf("%-9s %8d %10.0f %10d %10d %8d%n", mode, count,
+                            result.latencies.size() / (double) duration.toSeconds(), result.percentile(50),
+                            result.percentile(99), result.errors.get());
+                }
+            }
+        }
+    }
+
+    private ServletWebServerApplicationContext start(boolean virtual, List<String> serverArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + MAX_CONNECTIONS,
+                "--server.tomcat.accept-count=4096",
+                "--shareit.virtual-threads.enabled=" + virtual,
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:load_benchmark",
+                "--logging.level.root=WARN"));
+        args.addAll(serverArgs);
+        return (ServletWebServerApplicationContext) new SpringApplicationBuilder(ShareItServer.class)
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Creates an owner with one item and returns the request for that item.
+     */
+    private HttpRequest seed(String server) throws Exception {
+        String owner = post(server + "/users", null,
+                "{\"name\":\"Owner\",\"email\":\"owner" + System.nanoTime() + "@email.com\"}");
+        String ownerId = id(owner);
+        String item = post(server + "/items", ownerId,
+                "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}");
+        return HttpRequest.newBuilder(URI.create(server + "/items/" + id(item)))
+                .header("X-Sharer-User-Id", ownerId)
+                .header("Accept", "application/json")
+                .timeout(Duration.ofMinutes(1))
+                .build();
+    }
+
+    private Result measure(HttpRequest request, int clients, Duration duration) throws InterruptedException {
+        Result result = new Result();
+        CountDownLatch finished = new CountDownLatch(clients);
+        long deadline = System.nanoTime() + duration.toNanos();
+        for (int i = 0; i < clients; i++) {
+            next(request, deadline, result, finished);
+        }
+        finished.await(duration.toSeconds() + 120, TimeUnit.SECONDS);
+        return result;
+    }
+
+    /**
+     * Sends the next request of one client from the completion of the previous one, so a client
+     * holds no thread while it waits.
+     */
+    private void next(HttpRequest request, long deadline, Result result, CountDownLatch finished) {
+        long start = System.nanoTime();
+        if (start >= deadline) {
+            finished.countDown();
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null || response.statusCode() != 200) {
+                        result.errors.incrementAndGet();
+                    } else if (System.nanoTime() < deadline) {
+                        result.latencies.add((System.nanoTime() - start) / 1_000_000);
+                    }
+                    next(request, deadline, result, finished);
+                });
+    }
+
+    private String post(String uri, String userId, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", userId);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 && response.statusCode() != 201) {
+            throw new IllegalStateException("Server answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static String id(String json) {
+        Matcher matcher = ID.matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No id in " + json);
+        }
+        return matcher.group(1);
+    }
+
+    private static class Result {
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errors = new AtomicInteger();
+
+        private long percentile(int percent) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+        }
+    }
+}
@@ -6,14 +6,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.enumerated.BookingState;
 import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.etag.ReadVersions;
+import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.user.dto.UserShortDto;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -22,15 +28,20 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(ReadVersions.class)
 class BookingControllerTest {
 
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd, HH:mm:ss");
@@ -40,6 +51,10 @@ class BookingControllerTest {
     private ObjectMapper mapper;
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private UserService userService;
+    @Autowired
+    private ReadVersions readVersions;
     @Autowired
     private MockMvc mvc;
     private BookingDto bookingRequestDto;
@@ -156,7 +171,7 @@ class BookingControllerTest {
 
     @Test
     void findAllByUserIdWithPagination() throws Exception {
-        when(bookingService.findAllByUserId(any(), any(), any()))
+        when(bookingService.findAllByUserId(any(), any(), any(), any()))
                 .thenReturn(List.of(bookingResponseDto));
 
         mvc.perform(get("/bookings")
@@ -203,7 +218,7 @@ class BookingControllerTest {
 
     @Test
     void findAllByOwnerIdWithPagination() throws Exception {
-        when(bookingService.findAllByOwnerId(any(), any(), any()))
+        when(bookingService.findAllByOwnerId(any(), any(), any(), any()))
                 .thenReturn(List.of(bookingResponseDto));
 
         mvc.perform(get("/bookings/owner")
@@ -217,4 +232,90 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(bookingResponseDto.getId()), Long.class));
     }
+
+    @Test
+    void findAllByUserIdWithCursor() throws Exception {
+        when(bookingService.findPageByUserId(any(), any(), any(), any()))
+                .thenReturn(new BookingPage(List.of(bookingResponseDto), "next"));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("cursor", "current")
+                        .param("size", String.valueOf(1))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingResponseDto.getId()), Long.class));
+    }
+
+    @Test
+    void findAllByOwnerIdFirstKeysetPage() throws Exception {
+        when(bookingService.findPageByOwnerId(any(), any(), any(), any()))
+                .thenReturn(new BookingPage(List.of(bookingResponseDto), null));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", String.valueOf(5))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void findAllByUserIdAnswersMatchingETagWithNotModified() throws Exception {
+        when(bookingService.findAllByUserId(any(), any()))
+                .thenReturn(List.of(bookingResponseDto));
+
+        String eTag = mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, notNullValue()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 2)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(bookingService, times(1)).findAllByUserId(any(), any());
+    }
+
+    @Test
+    void unknownUserWithMatchingETagIsNotFound() throws Exception {
+        when(userService.findUserIfExistOrElseThrowNotFound(99L))
+                .thenThrow(new UserNotFoundException("User is not found"));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 99)
+                        .header(HttpHeaders.IF_NONE_MATCH, readVersions.bookingsETag(99L, BookingState.ALL))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void timeDependentStateHasNoETag() throws Exception {
+        when(bookingService.findAllByOwnerId(any(), any()))
+                .thenReturn(Collections.emptyList());
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("state", String.valueOf(BookingState.CURRENT))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
 }
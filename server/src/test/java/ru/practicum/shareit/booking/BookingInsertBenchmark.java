@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to save a thousand bookings with one {@code saveAll} on an in-memory H2 database, with JDBC batching
+ * off and on, and the JDBC statements it takes. H2 in memory has no network round trip, so the statement
+ * count is the number to watch: against PostgreSQL every statement is a round trip. Run with the main method from the IDE or
+ * {@code mvn -pl server test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.practicum.shareit.booking.BookingInsertBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingInsertBenchmark {
+
+    private static final int BOOKING_COUNT = 1000;
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private Statistics statistics;
+    private long statements;
+    private Item item;
+    private User booker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:booking_benchmark",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN");
+        bookingRepository = context.getBean(BookingRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@email.com"));
+        item = context.getBean(ItemRepository.class).save(new Item(null, "Дрель", "Простая дрель", true, owner, null));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nbatch size %d: %d JDBC statements per %d bookings%n",
+                batchSize, statements, BOOKING_COUNT);
+        context.close();
+    }
+
+    @Benchmark
+    public List<Booking> saveAll() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>(BOOKING_COUNT);
+        for (int i = 0; i < BOOKING_COUNT; i++) {
+            bookings.add(new Booking(null, start.plusDays(i), start.plusDays(i + 1), item, booker,
+                    BookingStatus.WAITING));
+        }
+        long prepared = statistics.getPrepareStatementCount();
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        statements = statistics.getPrepareStatementCount() - prepared;
+        return saved;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookingInsertBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Time to list the bookings of an owner of a hundred items booked by fifty users, a thousand bookings,
+ * loaded as entities and mapped to {@link BookingDto} the way the list endpoints did before, and selected
+ * with the {@link BookingDto} constructor expression, together with the JDBC statements it takes.
+ * The entity list loads every item, owner and booker it references, from the second-level cache when it is
+ * warm and with a statement of its own each when it is not.
+ * Run with the main method from the IDE or {@code mvn -pl server test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=ru.practicum.shareit.booking.BookingListBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingListBenchmark {
+
+    private static final int ITEM_COUNT = 100;
+    private static final int BOOKER_COUNT = 50;
+    private static final int BOOKINGS_PER_ITEM = 10;
+
+    @Param({"true", "false"})
+    private boolean warmCache;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private BookingRepository bookingRepository;
+    private Statistics statistics;
+    private long entityStatements;
+    private long projectionStatements;
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:booking_list_benchmark",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN");
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        ownerId = owner.getId();
+        List<User> bookers = new ArrayList<>(BOOKER_COUNT);
+        for (int i = 0; i < BOOKER_COUNT; i++) {
+            bookers.add(new User(null, "Booker " + i, "booker" + i + "@email.com"));
+        }
+        bookers = userRepository.saveAll(bookers);
+        List<Item> items = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(new Item(null, "Дрель " + i, "Простая дрель", true, owner, null));
+        }
+        items = context.getBean(ItemRepository.class).saveAll(items);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>(ITEM_COUNT * BOOKINGS_PER_ITEM);
+        for (int i = 0; i < ITEM_COUNT * BOOKINGS_PER_ITEM; i++) {
+            bookings.add(new Booking(null, start.plusDays(i), start.plusDays(i + 1), items.get(i % ITEM_COUNT),
+                    bookers.get(i % BOOKER_COUNT), BookingStatus.WAITING));
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Setup(Level.Invocation)
+    public void evictCache() {
+        if (!warmCache) {
+            entityManagerFactory.getCache().evictAll();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nwarm cache %b: entities %d, projection %d JDBC statements per %d bookings%n",
+                warmCache, entityStatements, projectionStatements, ITEM_COUNT * BOOKINGS_PER_ITEM);
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> entities() {
+        long prepared = statistics.getPrepareStatementCount();
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            List<Booking> bookings = em.createQuery("select b from Booking b where b.item.owner.id = :ownerId " +
+                            "order by b.start desc", Booking.class)
+                    .setParameter("ownerId", ownerId)
+                    .getResultList();
+            return bookings.stream()
+                    .map(BookingMapper::toDto)
+                    .collect(Collectors.toList());
+        } finally {
+            em.close();
+            entityStatements = statistics.getPrepareStatementCount() - prepared;
+        }
+    }
+
+    @Benchmark
+    public List<BookingDto> projection() {
+        long prepared = statistics.getPrepareStatementCount();
+        List<BookingDto> bookings = bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(ownerId);
+        projectionStatements = statistics.getPrepareStatementCount() - prepared;
+        return bookings;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookingListBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
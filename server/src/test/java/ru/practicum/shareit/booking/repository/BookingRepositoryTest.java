@@ -6,16 +6,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enumerated.BookingState;
 import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @DataJpaTest
 @Transactional
@@ -99,4 +107,134 @@ class BookingRepositoryTest {
         bookingRepository.save(booking);
         Assertions.assertNotNull(booking.getId());
     }
+
+    @Test
+    void findWindowContinuesAfterCursor() {
+        User owner = new User(null, "Olya", "olya@email.com");
+        User booker = new User(null, "Pasha", "ldldl@email.com");
+        em.persist(owner);
+        em.persist(booker);
+        Item item = new Item(null, "bla", "lalal", true, owner, null);
+        em.persist(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking first = em.persist(new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.WAITING));
+        Booking sameStart = em.persist(
+                new Booking(null, start, start.plusDays(2), item, booker, BookingStatus.WAITING));
+        Booking latest = em.persist(
+                new Booking(null, start.plusDays(3), start.plusDays(4), item, booker, BookingStatus.WAITING));
+        Specification<Booking> bookerBookings = BookingSpecifications.bookerIs(booker.getId())
+                .and(BookingSpecifications.inState(BookingState.ALL, LocalDateTime.now()));
+
+        List<BookingDto> firstPage = bookingRepository.findWindow(
+                bookerBookings, BookingSpecifications.NEWEST_FIRST, 0, 2);
+        BookingDto last = firstPage.get(firstPage.size() - 1);
+        List<BookingDto> secondPage = bookingRepository.findWindow(
+                bookerBookings.and(BookingSpecifications.after(new BookingCursor(last.getStart(), last.getId()))),
+                BookingSpecifications.NEWEST_FIRST, 0, 2);
+
+        Assertions.assertEquals(List.of(latest.getId(), sameStart.getId()), dtoIds(firstPage));
+        Assertions.assertEquals(List.of(first.getId()), dtoIds(secondPage));
+    }
+
+    @Test
+    void findAllByIdInVisibleToSkipsBookingsOfOtherUsers() {
+        User owner = em.persist(new User(null, "Olya", "olya@email.com"));
+        User booker = em.persist(new User(null, "Pasha", "ldldl@email.com"));
+        User other = em.persist(new User(null, "Lena", "lena@email.com"));
+        Item item = em.persist(new Item(null, "bla", "lalal", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booked = em.persist(new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.WAITING));
+        Booking bookedByOther = em.persist(
+                new Booking(null, start, start.plusDays(1), item, other, BookingStatus.WAITING));
+        List<Long> bookingIds = List.of(booked.getId(), bookedByOther.getId());
+
+        Assertions.assertEquals(List.of(booked.getId()),
+                ids(bookingRepository.findAllByIdInVisibleTo(bookingIds, booker.getId())));
+        Assertions.assertEquals(2, bookingRepository.findAllByIdInVisibleTo(bookingIds, owner.getId()).size());
+    }
+
+    @Test
+    void findAllByItem_OwnerIdSelectsBookingDtoColumns() {
+        User owner = em.persist(new User(null, "Olya", "olya@email.com"));
+        User booker = em.persist(new User(null, "Pasha", "ldldl@email.com"));
+        Item item = em.persist(new Item(null, "bla", "lalal", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking booking = em.persist(
+                new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.WAITING));
+        em.flush();
+        em.clear();
+
+        List<BookingDto> bookings = bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(owner.getId());
+
+        Assertions.assertEquals(1, bookings.size());
+        BookingDto dto = bookings.get(0);
+        Assertions.assertEquals(booking.getId(), dto.getId());
+        Assertions.assertEquals(start, dto.getStart());
+        Assertions.assertEquals(item.getId(), dto.getItemId());
+        Assertions.assertEquals(new ItemShortDto(item.getId(), "bla"), dto.getItem());
+        Assertions.assertEquals(new UserShortDto(booker.getId()), dto.getBooker());
+        Assertions.assertEquals(BookingStatus.WAITING, dto.getStatus());
+    }
+
+    @Test
+    void lastIsLatestStartedAndNextIsEarliestComingBookingOfEachItem() {
+        User owner = em.persist(new User(null, "Olya", "olya@email.com"));
+        User booker = em.persist(new User(null, "Pasha", "ldldl@email.com"));
+        Item drill = em.persist(new Item(null, "bla", "lalal", true, owner, null));
+        Item saw = em.persist(new Item(null, "saw", "sharp", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        em.persist(new Booking(null, start, start.plusDays(1), drill, booker, BookingStatus.APPROVED));
+        Booking last = em.persist(
+                new Booking(null, start.plusDays(4), start.plusDays(6), drill, booker, BookingStatus.APPROVED));
+        Booking next = em.persist(
+                new Booking(null, start.plusDays(7), start.plusDays(8), drill, booker, BookingStatus.WAITING));
+        em.persist(new Booking(null, start.plusDays(10), start.plusDays(11), drill, booker, BookingStatus.WAITING));
+        Booking sawNext = em.persist(
+                new Booking(null, start.plusDays(6), start.plusDays(7), saw, booker, BookingStatus.WAITING));
+        LocalDateTime at = start.plusDays(5);
+        List<Long> itemIds = List.of(drill.getId(), saw.getId());
+
+        Assertions.assertEquals(List.of(last.getId()), ids(bookingRepository.findLastBookingsByItemIds(itemIds, at)));
+        Assertions.assertEquals(List.of(next.getId(), sawNext.getId()),
+                ids(bookingRepository.findNextBookingsByItemIds(itemIds, at)).stream()
+                        .sorted()
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void currentLeavesOutBookingStartingNowInEveryFinder() {
+        User owner = em.persist(new User(null, "Olya", "olya@email.com"));
+        User booker = em.persist(new User(null, "Pasha", "ldldl@email.com"));
+        Item item = em.persist(new Item(null, "bla", "lalal", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking started = em.persist(
+                new Booking(null, start, start.plusDays(2), item, booker, BookingStatus.APPROVED));
+        em.persist(new Booking(null, start.plusDays(1), start.plusDays(3), item, booker, BookingStatus.APPROVED));
+        LocalDateTime at = start.plusDays(1);
+        List<Long> current = List.of(started.getId());
+        Specification<Booking> inCurrent = BookingSpecifications.inState(BookingState.CURRENT, at);
+
+        Assertions.assertEquals(current, dtoIds(bookingRepository
+                .findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(booker.getId(), at, at)));
+        Assertions.assertEquals(current, dtoIds(bookingRepository
+                .findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStart(owner.getId(), at, at)));
+        Assertions.assertEquals(current, dtoIds(bookingRepository.findWindow(
+                BookingSpecifications.bookerIs(booker.getId()).and(inCurrent),
+                BookingSpecifications.NEWEST_FIRST, 0, 10)));
+        Assertions.assertEquals(current, dtoIds(bookingRepository.findWindow(
+                BookingSpecifications.itemOwnerIs(owner.getId()).and(inCurrent),
+                BookingSpecifications.NEWEST_FIRST, 0, 10)));
+    }
+
+    private static List<Long> dtoIds(List<BookingDto> bookings) {
+        return bookings.stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.booking.schedule;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.exception.UnavailableBookingException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingScheduleIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @InjectMocks
+    private BookingScheduleIndex index;
+    @Mock
+    private BookingRepository bookingRepository;
+    private Item item;
+    private Item otherItem;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User(1L, "Olga", "Olga@email.com");
+        item = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        otherItem = new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, owner, null);
+    }
+
+    @Test
+    void saveRejectsOverlappingBooking() {
+        save(booking(item, 0, 2, BookingStatus.WAITING));
+
+        Assertions.assertThrows(UnavailableBookingException.class,
+                () -> save(booking(item, 1, 3, BookingStatus.WAITING)));
+    }
+
+    @Test
+    void saveAcceptsAdjacentBookingAndOtherItems() {
+        save(booking(item, 0, 2, BookingStatus.APPROVED));
+
+        save(booking(item, 2, 4, BookingStatus.WAITING));
+        save(booking(otherItem, 0, 2, BookingStatus.WAITING));
+    }
+
+    @Test
+    void rejectedBookingFreesDates() {
+        Booking booking = save(booking(item, 0, 2, BookingStatus.WAITING));
+
+        booking.setStatus(BookingStatus.REJECTED);
+        save(booking);
+
+        save(booking(item, 0, 2, BookingStatus.WAITING));
+    }
+
+    @Test
+    void approvingRejectedBookingChecksOverlaps() {
+        Booking rejected = save(booking(item, 0, 2, BookingStatus.REJECTED));
+        save(booking(item, 1, 2, BookingStatus.WAITING));
+
+        rejected.setStatus(BookingStatus.APPROVED);
+
+        Assertions.assertThrows(UnavailableBookingException.class, () -> save(rejected));
+    }
+
+    @Test
+    void approvingWaitingBookingKeepsItsDates() {
+        Booking booking = save(booking(item, 0, 2, BookingStatus.WAITING));
+
+        booking.setStatus(BookingStatus.APPROVED);
+        save(booking);
+
+        Assertions.assertThrows(UnavailableBookingException.class,
+                () -> save(booking(item, 1, 2, BookingStatus.WAITING)));
+    }
+
+    @Test
+    void rolledBackBookingFreesDates() {
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> save(booking(item, 0, 2, BookingStatus.WAITING)));
+
+        save(booking(item, 0, 2, BookingStatus.WAITING));
+    }
+
+    @Test
+    void rolledBackRejectionKeepsDates() {
+        Booking booking = save(booking(item, 0, 2, BookingStatus.APPROVED));
+        booking.setStatus(BookingStatus.REJECTED);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> save(booking));
+
+        Assertions.assertThrows(UnavailableBookingException.class,
+                () -> save(booking(item, 1, 2, BookingStatus.WAITING)));
+    }
+
+    @Test
+    void committedBookingKeepsDates() {
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> save(booking(item, 0, 2, BookingStatus.WAITING)));
+
+        Assertions.assertThrows(UnavailableBookingException.class,
+                () -> save(booking(item, 1, 2, BookingStatus.WAITING)));
+    }
+
+    @Test
+    void buildOnStartupLoadsActiveBookings() {
+        when(bookingRepository.findIntervalsByStatusIn(any()))
+                .thenReturn(List.of(new BookingInterval(10L, item.getId(), START, START.plusDays(2))));
+
+        index.buildOnStartup();
+
+        Assertions.assertThrows(UnavailableBookingException.class,
+                () -> save(booking(item, 1, 3, BookingStatus.WAITING)));
+    }
+
+    @Test
+    void concurrentOverlappingBookingsAreSavedOnce() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            List<Callable<Boolean>> attempts = IntStream.range(0, threads)
+                    .mapToObj(i -> (Callable<Boolean>) () -> {
+                        ready.await();
+                        try {
+                            save(booking(item, 0, 2, BookingStatus.WAITING));
+                            return true;
+                        } catch (UnavailableBookingException e) {
+                            return false;
+                        }
+                    })
+                    .collect(Collectors.toList());
+            List<Future<Boolean>> results = attempts.stream()
+                    .map(executor::submit)
+                    .collect(Collectors.toList());
+            ready.countDown();
+
+            long saved = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    saved++;
+                }
+            }
+            assertThat(saved, equalTo(1L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Booking save(Booking booking) {
+        return index.save(booking, () -> {
+            if (booking.getId() == null) {
+                booking.setId(ids.incrementAndGet());
+            }
+            return booking;
+        });
+    }
+
+    /**
+     * Runs {@code work} in a stand-in transaction that ends with {@code status}.
+     */
+    private static void inTransaction(int status, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Booking booking(Item item, int startDay, int endDay, BookingStatus status) {
+        return new Booking(null, START.plusDays(startDay), START.plusDays(endDay), item, null, status);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class IntervalTreeTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void overlapsTreatsIntervalsAsHalfOpen() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1L, hours(10), hours(12));
+
+        assertThat(tree.overlaps(hours(11), hours(13)), equalTo(true));
+        assertThat(tree.overlaps(hours(9), hours(10)), equalTo(false));
+        assertThat(tree.overlaps(hours(12), hours(14)), equalTo(false));
+        assertThat(tree.overlaps(hours(8), hours(20)), equalTo(true));
+    }
+
+    @Test
+    void removeFreesInterval() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1L, hours(10), hours(12));
+        tree.add(2L, hours(10), hours(11));
+
+        tree.remove(1L);
+
+        assertThat(tree.overlaps(hours(11), hours(12)), equalTo(false));
+        assertThat(tree.contains(2L), equalTo(true));
+        assertThat(tree.size(), equalTo(1));
+    }
+
+    @Test
+    void overlapsMatchesBruteForceOnRandomIntervals() {
+        Random random = new Random(7);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, int[]> intervals = new HashMap<>();
+        for (long id = 0; id < 2000; id++) {
+            if (!intervals.isEmpty() && random.nextInt(4) == 0) {
+                Long removed = intervals.keySet().iterator().next();
+                intervals.remove(removed);
+                tree.remove(removed);
+            }
+            int start = random.nextInt(5000);
+            int[] interval = {start, start + 1 + random.nextInt(50)};
+            intervals.put(id, interval);
+            tree.add(id, hours(interval[0]), hours(interval[1]));
+
+            int queryStart = random.nextInt(5000);
+            int queryEnd = queryStart + 1 + random.nextInt(50);
+            boolean expected = intervals.values().stream()
+                    .anyMatch(existing -> existing[0] < queryEnd && queryStart < existing[1]);
+            assertThat(tree.overlaps(hours(queryStart), hours(queryEnd)), equalTo(expected));
+        }
+    }
+
+    private static LocalDateTime hours(int hours) {
+        return BASE.plusHours(hours);
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enumerated.BookingState;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Asks H2 for the plan of every booking query issued by the state lists
+ * and checks that none of them reads BOOKING or ITEM with a full table scan.
+ */
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "ru.practicum.shareit.booking.service.BookingQueryPlanTest$RecordingInspector"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingQueryPlanTest {
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingService bookingService;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User(null, "Olga", "Olga@email.com");
+        booker = new User(null, "Pasha", "Pasha@email.com");
+        em.persist(owner);
+        em.persist(booker);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 10; i++) {
+            Item item = new Item(null, "item" + i, "description", true, owner, null);
+            em.persist(item);
+            em.persist(new Booking(null, start.plusDays(i), start.plusDays(i + 1), item, booker,
+                    BookingStatus.WAITING));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void bookerStateQueriesUseIndexes() {
+        assertIndexedForEveryState(state -> bookingService.findAllByUserId(booker.getId(), state));
+        assertIndexedForEveryState(state -> bookingService.findAllByUserId(booker.getId(), state, 0, 5));
+        assertIndexedForEveryState(state -> bookingService.findPageByUserId(booker.getId(), state, null, 5));
+    }
+
+    @Test
+    void ownerStateQueriesUseIndexes() {
+        assertIndexedForEveryState(state -> bookingService.findAllByOwnerId(owner.getId(), state));
+        assertIndexedForEveryState(state -> bookingService.findAllByOwnerId(owner.getId(), state, 0, 5));
+        assertIndexedForEveryState(state -> bookingService.findPageByOwnerId(owner.getId(), state, null, 5));
+    }
+
+    private void assertIndexedForEveryState(Consumer<BookingState> query) {
+        for (BookingState state : EnumSet.range(BookingState.ALL, BookingState.REJECTED)) {
+            RecordingInspector.STATEMENTS.clear();
+            query.accept(state);
+            List<String> bookingQueries = RecordingInspector.STATEMENTS.stream()
+                    .filter(sql -> sql.toLowerCase().contains(" from booking "))
+                    .collect(Collectors.toList());
+            assertThat(state + " issues no booking query", bookingQueries, not(empty()));
+            for (String sql : bookingQueries) {
+                String plan = explain(sql);
+                assertThat(state + " plan: " + plan, plan, not(containsString(".tableScan")));
+            }
+            em.clear();
+        }
+    }
+
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query("EXPLAIN " + sql,
+                statement -> {
+                    for (int i = 1; i <= parameters; i++) {
+                        statement.setObject(i, null);
+                    }
+                },
+                resultSet -> {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                });
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.replaceAll("\\s+", " "));
+            return sql;
+        }
+    }
+}
@@ -11,9 +11,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
 import ru.practicum.shareit.enumerated.BookingState;
 import ru.practicum.shareit.enumerated.BookingStatus;
 import ru.practicum.shareit.exception.BookingNotFoundException;
@@ -32,12 +36,17 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Transactional
@@ -60,6 +69,8 @@ class BookingServiceImplTest {
     private UserServiceImpl userService;
     @Mock
     private ItemService itemService;
+    @Mock
+    private BookingScheduleIndex bookingScheduleIndex;
     private UserDto userDto;
     private User user;
     private User booker;
@@ -96,8 +107,9 @@ class BookingServiceImplTest {
                 .thenReturn(item);
         when(userService.findUserIfExistOrElseThrowNotFound(any(Long.class)))
                 .thenReturn(userDto);
-        when(bookingRepository.save(any(Booking.class)))
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenReturn(booking);
+        saveThroughSchedule();
 
         BookingDto bookingSaved = bookingService.create(bookingRequestDto, 2L);
 
@@ -109,6 +121,20 @@ class BookingServiceImplTest {
         assertThat(bookingSaved.getStatus(), equalTo(BookingStatus.WAITING));
     }
 
+    @Test
+    void createBookingOverlappingAnother() {
+        when(itemService.getItemById(any(Long.class)))
+                .thenReturn(item);
+        when(userService.findUserIfExistOrElseThrowNotFound(any(Long.class)))
+                .thenReturn(userDto);
+        when(bookingScheduleIndex.save(any(), any()))
+                .thenThrow(new UnavailableBookingException("Item is already booked for these dates"));
+
+        Assertions.assertThrows(UnavailableBookingException.class,
+                () -> bookingService.create(bookingRequestDto, 2L));
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     void createBookingByOwnerFail() {
         when(itemService.getItemById(any(Long.class)))
@@ -144,11 +170,12 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(bookingRepository.findById(any(Long.class)))
+        when(bookingRepository.findWithItemById(any(Long.class)))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(bookingRepository.save(any(Booking.class)))
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenReturn(bookingApproved);
+        saveThroughSchedule();
 
         BookingDto bookingWithStatus = bookingService.setBookingStatus(1L, 1L, true);
 
@@ -170,11 +197,12 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.REJECTED)
                 .build();
-        when(bookingRepository.findById(any(Long.class)))
+        when(bookingRepository.findWithItemById(any(Long.class)))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(bookingRepository.save(any(Booking.class)))
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenReturn(bookingRejected);
+        saveThroughSchedule();
 
         BookingDto bookingWithStatus = bookingService.setBookingStatus(1L, 1L, false);
 
@@ -188,7 +216,7 @@ class BookingServiceImplTest {
 
     @Test
     void failSetBookingStatusBookingNotFound() {
-        when(bookingRepository.findById(any(Long.class)))
+        when(bookingRepository.findWithItemById(any(Long.class)))
                 .thenReturn(Optional.empty());
 
         final BookingNotFoundException exception = Assertions.assertThrows(
@@ -200,7 +228,7 @@ class BookingServiceImplTest {
 
     @Test
     void failSetBookingStatusByBooker() {
-        when(bookingRepository.findById(any(Long.class)))
+        when(bookingRepository.findWithItemById(any(Long.class)))
                 .thenReturn(Optional.of(booking));
 
         final BookingNotFoundException exception = Assertions.assertThrows(
@@ -213,7 +241,7 @@ class BookingServiceImplTest {
     @Test
     void failSetBookingStatusWhenAlreadyApproved() {
         booking.setStatus(BookingStatus.APPROVED);
-        when(bookingRepository.findById(any(Long.class)))
+        when(bookingRepository.findWithItemById(any(Long.class)))
                 .thenReturn(Optional.of(booking));
 
         final UnavailableBookingException exception = Assertions.assertThrows(
@@ -225,7 +253,7 @@ class BookingServiceImplTest {
 
     @Test
     void getById() {
-        when(bookingRepository.findById(any(Long.class)))
+        when(bookingRepository.findWithItemById(any(Long.class)))
                 .thenReturn(Optional.of(booking));
 
         BookingDto bookingFound = bookingService.getById(1L, 1L);
@@ -240,7 +268,7 @@ class BookingServiceImplTest {
 
     @Test
     void failGetByIdNotFound() {
-        when(bookingRepository.findById(any(Long.class)))
+        when(bookingRepository.findWithItemById(any(Long.class)))
                 .thenReturn(Optional.empty());
 
         final BookingNotFoundException exception = Assertions.assertThrows(
@@ -252,7 +280,7 @@ class BookingServiceImplTest {
 
     @Test
     void failGetByIdWrongUser() {
-        when(bookingRepository.findById(any(Long.class)))
+        when(bookingRepository.findWithItemById(any(Long.class)))
                 .thenReturn(Optional.of(booking));
 
         final BookingNotFoundException exception = Assertions.assertThrows(
@@ -267,7 +295,7 @@ class BookingServiceImplTest {
         when(userService.findUserIfExistOrElseThrowNotFound(any(Long.class)))
                 .thenReturn(userDto);
         when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyLong()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByUserId(1L, BookingState.ALL);
 
@@ -282,7 +310,7 @@ class BookingServiceImplTest {
         when(bookingRepository
                 .findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
                         anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByUserId(1L, BookingState.CURRENT);
 
@@ -296,7 +324,7 @@ class BookingServiceImplTest {
                 .thenReturn(userDto);
         when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(
                 anyLong(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByUserId(1L, BookingState.PAST);
 
@@ -310,7 +338,7 @@ class BookingServiceImplTest {
                 .thenReturn(userDto);
         when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
                 anyLong(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByUserId(1L, BookingState.FUTURE);
 
@@ -324,7 +352,7 @@ class BookingServiceImplTest {
                 .thenReturn(userDto);
         when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
                 anyLong(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByUserId(1L, BookingState.WAITING);
 
@@ -338,7 +366,7 @@ class BookingServiceImplTest {
                 .thenReturn(userDto);
         when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
                 anyLong(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByUserId(1L, BookingState.REJECTED);
 
@@ -351,7 +379,7 @@ class BookingServiceImplTest {
         when(userService.findUserIfExistOrElseThrowNotFound(any(Long.class)))
                 .thenReturn(userDto);
         when(bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(anyLong()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByOwnerId(1L, BookingState.ALL);
 
@@ -364,9 +392,9 @@ class BookingServiceImplTest {
         when(userService.findUserIfExistOrElseThrowNotFound(any(Long.class)))
                 .thenReturn(userDto);
         when(bookingRepository
-                .findAllByItem_OwnerIdAndStartLessThanEqualAndEndGreaterThanOrderByStart(
+                .findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStart(
                         anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByOwnerId(1L, BookingState.CURRENT);
 
@@ -380,7 +408,7 @@ class BookingServiceImplTest {
                 .thenReturn(userDto);
         when(bookingRepository.findAllByItem_OwnerIdAndEndLessThanEqual(
                 anyLong(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByOwnerId(1L, BookingState.PAST);
 
@@ -394,7 +422,7 @@ class BookingServiceImplTest {
                 .thenReturn(userDto);
         when(bookingRepository.findAllByItem_OwnerIdAndStartGreaterThanEqualOrderByStartDesc(
                 anyLong(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByOwnerId(1L, BookingState.FUTURE);
 
@@ -408,7 +436,7 @@ class BookingServiceImplTest {
                 .thenReturn(userDto);
         when(bookingRepository.findAllByItem_OwnerIdAndStatusOrderByStart(
                 anyLong(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByOwnerId(1L, BookingState.WAITING);
 
@@ -422,7 +450,7 @@ class BookingServiceImplTest {
                 .thenReturn(userDto);
         when(bookingRepository.findAllByItem_OwnerIdAndStatus(
                 anyLong(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         List<BookingDto> bookings = bookingService.findAllByOwnerId(1L, BookingState.REJECTED);
 
@@ -434,11 +462,10 @@ class BookingServiceImplTest {
 
     @Test
     void testFindAllByUserId() {
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(
-                anyLong(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findWindow(any(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
-        List<BookingDto> bookings = bookingService.findAllByUserId(1L, 0, 1);
+        List<BookingDto> bookings = bookingService.findAllByUserId(1L, BookingState.ALL, 0, 1);
 
         assertThat(bookings.size(), equalTo(1));
         assertThat(bookings.get(0).getId(), equalTo(booking.getId()));
@@ -446,13 +473,55 @@ class BookingServiceImplTest {
 
     @Test
     void testFindAllByOwnerId() {
-        when(bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(
-                anyLong(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findWindow(any(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
-        List<BookingDto> bookings = bookingService.findAllByOwnerId(1L, 0, 1);
+        List<BookingDto> bookings = bookingService.findAllByOwnerId(1L, BookingState.ALL, 0, 1);
 
         assertThat(bookings.size(), equalTo(1));
         assertThat(bookings.get(0).getId(), equalTo(booking.getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindAllByUserIdWrongSize() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> bookingService.findAllByUserId(1L, BookingState.ALL, 0, 0));
+    }
+
+    @Test
+    void testFindPageByUserIdReturnsCursorOfLastBooking() {
+        when(bookingRepository.findWindow(any(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
+
+        BookingPage page = bookingService.findPageByUserId(1L, BookingState.ALL, null, 1);
+
+        assertThat(page.getBookings().size(), equalTo(1));
+        BookingCursor cursor = BookingCursor.decode(page.getNextCursor());
+        assertThat(cursor.getStart(), equalTo(booking.getStart()));
+        assertThat(cursor.getId(), equalTo(booking.getId()));
+    }
+
+    @Test
+    void testFindPageByOwnerIdLastPage() {
+        when(bookingRepository.findWindow(any(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
+        String cursor = new BookingCursor(booking.getEnd(), 5L).encode();
+
+        BookingPage page = bookingService.findPageByOwnerId(1L, BookingState.ALL, cursor, 2);
+
+        assertThat(page.getBookings().size(), equalTo(1));
+        assertThat(page.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void testFindPageByOwnerIdBrokenCursor() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> bookingService.findPageByOwnerId(1L, BookingState.ALL, "broken", 2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void saveThroughSchedule() {
+        when(bookingScheduleIndex.save(any(), any()))
+                .thenAnswer(invocation -> ((Supplier<Booking>) invocation.getArgument(1)).get());
+    }
+}
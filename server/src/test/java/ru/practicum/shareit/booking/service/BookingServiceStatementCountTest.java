@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enumerated.BookingState;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * JDBC statements of every booking endpoint. Associations are lazy, each endpoint loads what it maps
+ * and nothing else: the item of a booking is the only association read, owner and booker are known by id.
+ */
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingServiceStatementCountTest {
+
+    private final EntityManager em;
+    private final BookingService bookingService;
+    private User owner;
+    private User booker;
+    private Item item;
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = new User(null, "Olga", "Olga@email.com");
+        booker = new User(null, "Pasha", "Pasha@email.com");
+        em.persist(owner);
+        em.persist(booker);
+        User requestor = new User(null, "Lena", "Lena@email.com");
+        em.persist(requestor);
+        ItemRequest request = new ItemRequest(null, "Нужна дрель", requestor, LocalDateTime.now(), null);
+        em.persist(request);
+        item = new Item(null, "Дрель", "Простая дрель", true, owner, request);
+        em.persist(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 10; i++) {
+            Booking booking = new Booking(null, start.plusDays(i * 2L), start.plusDays(i * 2L + 1), item, booker,
+                    BookingStatus.WAITING);
+            em.persist(booking);
+            bookingIds.add(booking.getId());
+        }
+        em.flush();
+        em.clear();
+        // users found once are cached, the counts below are of the booking work only
+        bookingService.findAllByUserId(owner.getId(), BookingState.ALL);
+        bookingService.findAllByUserId(booker.getId(), BookingState.ALL);
+        em.clear();
+    }
+
+    @Test
+    void createReadsItemAndInsertsBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(30);
+        long statements = countStatements(() -> {
+            BookingDto booking = bookingService.create(BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(start)
+                    .end(start.plusDays(1))
+                    .build(), booker.getId());
+            em.flush();
+            assertThat(booking.getItem(), equalTo(new ItemShortDto(item.getId(), "Дрель")));
+        });
+
+        // item, insert
+        assertThat(statements, equalTo(2L));
+    }
+
+    @Test
+    void getByIdReadsBookingWithItemOnly() {
+        long statements = countStatements(() ->
+                assertThat(bookingService.getById(bookingIds.get(0), owner.getId()).getItem().getName(),
+                        equalTo("Дрель")));
+
+        assertThat(statements, equalTo(1L));
+    }
+
+    @Test
+    void setBookingStatusReadsBookingWithItemAndUpdatesIt() {
+        long statements = countStatements(() -> {
+            BookingDto booking = bookingService.setBookingStatus(bookingIds.get(0), owner.getId(), true);
+            em.flush();
+            assertThat(booking.getStatus(), equalTo(BookingStatus.APPROVED));
+        });
+
+        // booking with item, update
+        assertThat(statements, equalTo(2L));
+    }
+
+    @Test
+    void getAllByIdReadsBookingsWithItemsOnce() {
+        long statements = countStatements(() ->
+                assertThat(bookingService.getAllById(bookingIds, booker.getId()).size(), equalTo(10)));
+
+        assertThat(statements, equalTo(1L));
+    }
+
+    @Test
+    void listsSelectBookingDtoColumnsOnce() {
+        long byBooker = countStatements(() ->
+                assertThat(bookingService.findAllByUserId(booker.getId(), BookingState.ALL).size(), equalTo(10)));
+        long byOwner = countStatements(() ->
+                assertThat(bookingService.findAllByOwnerId(owner.getId(), BookingState.WAITING).size(),
+                        equalTo(10)));
+        long window = countStatements(() ->
+                assertThat(bookingService.findAllByOwnerId(owner.getId(), BookingState.ALL, 0, 5).size(),
+                        equalTo(5)));
+        long page = countStatements(() ->
+                assertThat(bookingService.findPageByUserId(booker.getId(), BookingState.FUTURE, null, 5)
+                        .getBookings().size(), equalTo(5)));
+
+        assertThat(byBooker, equalTo(1L));
+        assertThat(byOwner, equalTo(1L));
+        assertThat(window, equalTo(1L));
+        assertThat(page, equalTo(1L));
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        long count = statistics.getPrepareStatementCount();
+        em.clear();
+        return count;
+    }
+}
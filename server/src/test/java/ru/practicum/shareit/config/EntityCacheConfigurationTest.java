@@ -0,0 +1,98 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class EntityCacheConfigurationTest {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final ItemService itemService;
+    private final UserService userService;
+    private UserDto owner;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(new UserDto(null, "Olga", "Olga@email.com"));
+        item = itemService.create(new ItemDto(null, "Дрель", "Простая дрель", true, owner, null),
+                owner.getId());
+    }
+
+    @Test
+    void itemAndOwnerAreReadFromCache() {
+        itemService.getItemById(item.getId());
+        double hits = itemHits();
+
+        long statements = countStatements(() -> inTransaction(() -> {
+            Item cached = itemService.getItemById(item.getId());
+            assertThat(cached.getName(), equalTo("Дрель"));
+            assertThat(cached.getOwner().getName(), equalTo("Olga"));
+        }));
+
+        assertThat(statements, equalTo(0L));
+        assertThat(itemHits(), greaterThan(hits));
+    }
+
+    @Test
+    void updatesReplaceCachedEntities() {
+        itemService.getItemById(item.getId());
+
+        itemService.update(new ItemDto(null, "Перфоратор", null, null, null, null), owner.getId(), item.getId());
+        userService.update(new UserDto(owner.getId(), "Olya", null));
+
+        inTransaction(() -> {
+            Item cached = itemService.getItemById(item.getId());
+            assertThat(cached.getName(), equalTo("Перфоратор"));
+            assertThat(cached.getOwner().getName(), equalTo("Olya"));
+        });
+    }
+
+    private double itemHits() {
+        return meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", "item")
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    /**
+     * The owner is lazy, it is read from the cache in the session of the item.
+     */
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+        action.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+
+/**
+ * Reads application.properties under each profile. A comment next to a {@code #---} separator
+ * joins two documents into one, which these tests catch.
+ */
+class ProfilePropertiesTest {
+
+    @Test
+    void noProfileUsesPostgresWithoutReplica() {
+        withProfiles(environment -> {
+            assertThat(environment.getProperty("spring.datasource.url"), startsWith("jdbc:postgresql://db:5432/"));
+            assertThat(environment.getProperty("shareit.datasource.replica.jdbc-url"), nullValue());
+        });
+    }
+
+    @Test
+    void replicaAddsReplicaToPostgres() {
+        withProfiles(environment -> {
+            assertThat(environment.getProperty("spring.datasource.url"), startsWith("jdbc:postgresql://db:5432/"));
+            assertThat(environment.getProperty("shareit.datasource.replica.jdbc-url"),
+                    equalTo("jdbc:postgresql://db-replica:5432/shareit"));
+        }, "replica");
+    }
+
+    @Test
+    void ciUsesInMemoryDatabaseAndCommonMigrations() {
+        withProfiles(environment -> {
+            assertThat(environment.getProperty("spring.datasource.url"),
+                    equalTo("jdbc:h2:mem:shareit;DB_CLOSE_DELAY=-1"));
+            assertThat(environment.getProperty("spring.flyway.locations"), equalTo("classpath:db/migration"));
+        }, "ci");
+    }
+
+    @Test
+    void testGivesEveryContextItsOwnDatabase() {
+        withProfiles(environment ->
+                assertThat(environment.getProperty("spring.datasource.url"), startsWith("jdbc:h2:mem:")), "test");
+    }
+
+    private static void withProfiles(Consumer<Environment> check, String... profiles) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProfilePropertiesTest.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=" + String.join(",", profiles))) {
+            check.accept(context.getEnvironment());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The lists of a user read right after their writes, the replica might not have these writes yet.
+ */
+@SpringBootTest(
+        properties = {"db.name=test",
+                "shareit.datasource.replica-lag=1m",
+                "spring.datasource.url=jdbc:h2:mem:read_replica_after_write",
+                "shareit.datasource.replica.jdbc-url=jdbc:h2:mem:read_replica_after_write",
+                "shareit.datasource.replica.username=test",
+                "shareit.datasource.replica.password=test"})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReadReplicaAfterWriteTest {
+
+    private final MockMvc mvc;
+    private final HikariDataSource replicaDataSource;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+
+    @Test
+    void listsStayOnPrimaryForReplicaLag() throws Exception {
+        Long userId = userService.create(new UserDto(null, "Olga", "Olga@email.com")).getId();
+        itemService.create(new ItemDto(null, "Дрель", "Простая дрель", true, null, null), userId);
+        itemRequestService.create(ItemRequestDto.builder().description("Нужна дрель").build(), userId);
+
+        mvc.perform(get("/requests").header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mvc.perform(get("/bookings").header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk());
+
+        assertThat(replicaDataSource.getHikariPoolMXBean(), nullValue());
+    }
+}
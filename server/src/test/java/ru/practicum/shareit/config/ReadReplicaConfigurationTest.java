@@ -0,0 +1,81 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.enumerated.BookingState;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * The replica is the in-memory database of the primary under a second pool, a read that reaches the replica
+ * starts that pool. The search reads the database, as the in-memory index reads nothing. A zero replica lag lets
+ * the reads go to the replica right after the writes.
+ */
+@SpringBootTest(
+        properties = {"db.name=test",
+                "shareit.search.engine=database",
+                "shareit.datasource.replica-lag=0s",
+                "spring.datasource.url=jdbc:h2:mem:read_replica_configuration",
+                "shareit.datasource.replica.jdbc-url=jdbc:h2:mem:read_replica_configuration",
+                "shareit.datasource.replica.username=test",
+                "shareit.datasource.replica.password=test"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReadReplicaConfigurationTest {
+
+    private final HikariDataSource replicaDataSource;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final BookingService bookingService;
+
+    @Test
+    void requestListsGoToReplica() {
+        Long userId = createUserWithItemAndRequest();
+
+        assertThat(itemRequestService.getAllByUserId(userId).size(), equalTo(1));
+
+        assertThat(replicaDataSource.getHikariPoolMXBean(), notNullValue());
+    }
+
+    @Test
+    void bookingListsGoToReplica() {
+        Long userId = createUserWithItemAndRequest();
+
+        assertThat(bookingService.findAllByUserId(userId, BookingState.ALL).size(), equalTo(0));
+
+        assertThat(replicaDataSource.getHikariPoolMXBean(), notNullValue());
+    }
+
+    @Test
+    void searchGoesToReplica() {
+        createUserWithItemAndRequest();
+
+        assertThat(itemService.search("дрель", null, 0, 10).getItems().size(), equalTo(1));
+
+        assertThat(replicaDataSource.getHikariPoolMXBean(), notNullValue());
+    }
+
+    private Long createUserWithItemAndRequest() {
+        UserDto user = userService.create(new UserDto(null, "Olga", "Olga@email.com"));
+        itemService.create(new ItemDto(null, "Дрель", "Простая дрель", true, null, null), user.getId());
+        itemRequestService.create(ItemRequestDto.builder().description("Нужна дрель").build(), user.getId());
+        assertThat(replicaDataSource.getHikariPoolMXBean(), nullValue());
+        return user.getId();
+    }
+}
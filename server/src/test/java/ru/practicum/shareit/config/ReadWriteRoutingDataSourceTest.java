@@ -0,0 +1,97 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private ReadWriteRoutingDataSource dataSource;
+    private boolean primaryRequired;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReadWriteRoutingDataSource(primary, replica, Duration.ofMinutes(1), () -> primaryRequired);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void writesAndReadsOutsideReadOnlyTransactionsUsePrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection(), sameInstance(primaryConnection));
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() throws SQLException {
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection(), sameInstance(replicaConnection));
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void readOnlyTransactionsUsePrimaryWhenRequired() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        primaryRequired = true;
+
+        assertThat(dataSource.getConnection(), sameInstance(primaryConnection));
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void failingReplicaFallsBackToPrimaryAndIsNotRetriedAtOnce() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("replica - timed out"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection(), sameInstance(primaryConnection));
+        assertThat(dataSource.getConnection(), sameInstance(primaryConnection));
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    void failedReplicaIsRetriedAfterRetryTime() throws SQLException {
+        dataSource = new ReadWriteRoutingDataSource(primary, replica, Duration.ZERO, () -> false);
+        when(replica.getConnection())
+                .thenThrow(new SQLTransientConnectionException("replica - timed out"))
+                .thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection(), sameInstance(primaryConnection));
+        assertThat(dataSource.getConnection(), sameInstance(replicaConnection));
+    }
+}
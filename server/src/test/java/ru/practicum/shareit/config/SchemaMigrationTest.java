@@ -0,0 +1,91 @@
+package ru.practicum.shareit.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Starts the server twice on one database: the first start creates the schema, the second one keeps the data
+ * and applies nothing. The PostgreSQL migrations run only when {@code SHAREIT_TEST_POSTGRES_URL} names
+ * a scratch database, user {@code shareit}, which the test clears.
+ */
+class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:migration_test";
+    private static final String POSTGRES_URL = "SHAREIT_TEST_POSTGRES_URL";
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(new DriverManagerDataSource(URL, "test", "test")).execute("SHUTDOWN");
+    }
+
+    @Test
+    void restartKeepsDataAndAppliesNoMigrations() {
+        try (ConfigurableApplicationContext context = start()) {
+            context.getBean(UserRepository.class).save(new User(null, "Olga", "Olga@email.com"));
+            assertThat(context.getBean(Flyway.class).info().applied().length, equalTo(2));
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertThat(context.getBean(UserRepository.class).count(), equalTo(1L));
+            assertThat(context.getBean(Flyway.class).info().pending().length, equalTo(0));
+        }
+    }
+
+    @Test
+    void emptyDatabaseIssuesIdOneFirst() {
+        try (ConfigurableApplicationContext context = start()) {
+            assertThat(saveUser(context), equalTo(1L));
+        }
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = POSTGRES_URL, matches = ".+")
+    void emptyPostgresDatabaseIssuesIdOneFirst() {
+        clearPostgres();
+        try (ConfigurableApplicationContext context = startPostgres()) {
+            assertThat(context.getBean(Flyway.class).info().applied().length, equalTo(3));
+            assertThat(saveUser(context), equalTo(1L));
+        }
+    }
+
+    private static Long saveUser(ConfigurableApplicationContext context) {
+        return context.getBean(UserRepository.class).save(new User(null, "Ivan", "Ivan@email.com")).getId();
+    }
+
+    private static JdbcTemplate postgres() {
+        return new JdbcTemplate(new DriverManagerDataSource(System.getenv(POSTGRES_URL), "shareit", "shareit"));
+    }
+
+    private static void clearPostgres() {
+        postgres().execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+    }
+
+    private static ConfigurableApplicationContext startPostgres() {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=",
+                        "--spring.datasource.url=" + System.getenv(POSTGRES_URL),
+                        "--spring.datasource.username=shareit",
+                        "--spring.datasource.password=shareit");
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=" + URL + ";DB_CLOSE_DELAY=-1");
+    }
+}
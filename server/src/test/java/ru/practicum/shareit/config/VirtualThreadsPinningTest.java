@@ -0,0 +1,182 @@
+package ru.practicum.shareit.config;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.enumerated.BookingState;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * Runs the request path on virtual threads under a JFR recording of {@code jdk.VirtualThreadPinned} events,
+ * a virtual thread that parks while it holds a monitor keeps its carrier thread. Pinning inside the H2 test
+ * database is ignored, H2 synchronizes on its session and is not used in production.
+ * Runs on Java 21 and newer only, e.g. {@code mvn -Pjdk21 test -Dtest=VirtualThreadsPinningTest}.
+ */
+@SpringBootTest(
+        properties = {"db.name=test", "spring.datasource.hikari.maximum-pool-size=2"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@EnabledIf("virtualThreadsAvailable")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class VirtualThreadsPinningTest {
+
+    private static final int THREADS = 16;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).withNano(0);
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final BookingScheduleIndex scheduleIndex;
+    private final UserCache userCache;
+
+    static boolean virtualThreadsAvailable() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Sixteen threads share two connections, so they also wait for the connection pool.
+     */
+    @Test
+    void jdbcPathDoesNotPinCarrierThreads() throws Exception {
+        UserDto owner = userService.create(new UserDto(null, "Olga", "Olga@email.com"));
+        ItemDto item = itemService.create(new ItemDto(null, "Дрель", "Простая дрель", true, null, null),
+                owner.getId());
+        List<UserDto> bookers = IntStream.range(0, THREADS)
+                .mapToObj(i -> userService.create(new UserDto(null, "Booker" + i, "booker" + i + "@email.com")))
+                .collect(Collectors.toList());
+
+        List<String> pinned = recordPinning(() -> onVirtualThreads(i -> {
+            Long bookerId = bookers.get(i).getId();
+            userService.findUserIfExistOrElseThrowNotFound(bookerId);
+            itemService.getByItemId(item.getId(), bookerId);
+            bookingService.create(BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(START.plusDays(2L * i))
+                    .end(START.plusDays(2L * i + 1))
+                    .build(), bookerId);
+            bookingService.findAllByUserId(bookerId, BookingState.ALL);
+        }));
+
+        assertThat(pinned, empty());
+    }
+
+    /**
+     * The saver and the loader sleep while the schedule lock is held and while other threads wait
+     * for the same user to load, as they do on a slow database.
+     */
+    @Test
+    void scheduleLockAndUserCacheDoNotPinWhileWaiting() throws Exception {
+        User owner = new User(1L, "Olga", "Olga@email.com");
+        Item item = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        AtomicLong ids = new AtomicLong();
+
+        List<String> pinned = recordPinning(() -> onVirtualThreads(i -> {
+            Booking booking = new Booking(null, START.plusDays(2L * i), START.plusDays(2L * i + 1),
+                    item, null, BookingStatus.WAITING);
+            scheduleIndex.save(booking, () -> {
+                sleep();
+                booking.setId(ids.incrementAndGet());
+                return booking;
+            });
+            userCache.get(99L, id -> {
+                sleep();
+                return new UserDto(id, "Olga", "Olga@email.com");
+            });
+        }));
+
+        assertThat(pinned, empty());
+    }
+
+    private static List<String> recordPinning(Task work) throws Exception {
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getStackTrace() != null && !inH2(event))
+                    .map(VirtualThreadsPinningTest::describe)
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void onVirtualThreads(IntConsumer task) throws Exception {
+        ExecutorService executor = VirtualThreadsConfiguration.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<?>> results = IntStream.range(0, THREADS)
+                    .mapToObj(i -> executor.submit(() -> task.accept(i)))
+                    .collect(Collectors.toList());
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static boolean inH2(RecordedEvent event) {
+        return event.getStackTrace().getFrames().stream()
+                .anyMatch(frame -> frame.getMethod().getType().getName().startsWith("org.h2."));
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getStackTrace().getFrames().stream()
+                .limit(20)
+                .map(VirtualThreadsPinningTest::describe)
+                .collect(Collectors.joining("\n\tat ", "pinned\n\tat ", ""));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.etag;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.enumerated.BookingState;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReadVersionsTest {
+
+    private final ReadVersions readVersions;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+
+    @Test
+    void bookingChangesETagsOfBookerAndOwnerOnly() {
+        Long ownerId = userService.create(new UserDto(null, "Olga", "Olga@email.com")).getId();
+        Long bookerId = userService.create(new UserDto(null, "Booker", "booker@email.com")).getId();
+        Long otherId = userService.create(new UserDto(null, "Other", "other@email.com")).getId();
+        Long itemId = itemService.create(new ItemDto(null, "Дрель", "Простая дрель", true, null, null), ownerId)
+                .getId();
+        String owner = readVersions.bookingsETag(ownerId, BookingState.ALL);
+        String booker = readVersions.bookingsETag(bookerId, BookingState.WAITING);
+        String other = readVersions.bookingsETag(otherId, BookingState.ALL);
+
+        bookingService.create(BookingDto.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build(), bookerId);
+
+        assertThat(readVersions.bookingsETag(ownerId, BookingState.ALL), not(equalTo(owner)));
+        assertThat(readVersions.bookingsETag(bookerId, BookingState.WAITING), not(equalTo(booker)));
+        assertThat(readVersions.bookingsETag(otherId, BookingState.ALL), equalTo(other));
+    }
+
+    @Test
+    void itemAndRequestWritesChangeRequestETags() {
+        Long ownerId = userService.create(new UserDto(null, "Olga", "Olga@email.com")).getId();
+        String before = readVersions.requestsETag(ownerId);
+
+        itemRequestService.create(ItemRequestDto.builder().description("Нужна дрель").build(), ownerId);
+        String afterRequest = readVersions.requestsETag(ownerId);
+        itemService.create(new ItemDto(null, "Дрель", "Простая дрель", true, null, null), ownerId);
+
+        assertThat(afterRequest, not(equalTo(before)));
+        assertThat(readVersions.requestsETag(ownerId), not(equalTo(afterRequest)));
+    }
+
+    @Test
+    void userWriteIsRecentForThatUserAndItemWriteForEveryone() {
+        Long ownerId = userService.create(new UserDto(null, "Olga", "Olga@email.com")).getId();
+        Long otherId = ownerId + 1;
+
+        assertThat(readVersions.writtenWithin(ownerId, Duration.ofMinutes(1)), is(true));
+        assertThat(readVersions.writtenWithin(ownerId, Duration.ZERO), is(false));
+        assertThat(readVersions.writtenWithin(otherId, Duration.ofMinutes(1)), is(false));
+
+        itemService.create(new ItemDto(null, "Дрель", "Простая дрель", true, null, null), ownerId);
+
+        assertThat(readVersions.writtenWithin(otherId, Duration.ofMinutes(1)), is(true));
+        assertThat(readVersions.writtenWithin(null, Duration.ofMinutes(1)), is(true));
+    }
+}
@@ -11,17 +11,19 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchPage;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -157,16 +159,18 @@ class ItemControllerTest {
     void searchItemsByQuery() throws Exception {
         itemService.create(itemDto, 1L);
         itemService.create(itemDto2, 1L);
-        when(itemService.search(any()))
-                .thenReturn(Set.of(itemDto));
+        when(itemService.search(any(), any(), any(), any()))
+                .thenReturn(new ItemSearchPage(List.of(itemDto), "MTox"));
 
         mvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", 1)
                         .param("text", "saw")
+                        .param("size", "1")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "MTox"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].name", is(itemDto.getName())))
@@ -174,6 +178,21 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    void searchItemsByQueryWithoutPagingGivesEveryHit() throws Exception {
+        when(itemService.search("saw"))
+                .thenReturn(List.of(itemDto, itemDto2));
+
+        mvc.perform(get("/items/search")
+                        .param("text", "saw")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        verify(itemService, never()).search(any(), any(), any(), any());
+    }
+
     @Test
     void createComment() throws Exception {
         CommentDto commentDto = new CommentDto(null, "text", "Olga", null);
@@ -193,4 +212,23 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.authorName", is(commentDto.getAuthorName())))
                 .andExpect(jsonPath("$.creationDate", is(commentDto.getCreationDate())));
     }
+
+    @Test
+    void searchFreeItemsByQuery() throws Exception {
+        when(itemService.searchFree(any(), any(), any(), any(), any(), any()))
+                .thenReturn(new ItemSearchPage(List.of(itemDto), null));
+
+        mvc.perform(get("/items/search/available")
+                        .param("text", "saw")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-02T10:00:00")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+        verify(itemService).searchFree("saw", LocalDateTime.of(2030, 1, 1, 10, 0),
+                LocalDateTime.of(2030, 1, 2, 10, 0), null, 0, 20);
+    }
 }
\ No newline at end of file
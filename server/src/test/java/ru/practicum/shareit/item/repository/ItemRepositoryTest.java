@@ -8,6 +8,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
+import ru.practicum.shareit.enumerated.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -15,6 +18,8 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -51,4 +56,55 @@ class ItemRepositoryTest {
         assertThat(item.getName(), equalTo(item1.getName()));
         assertThat(item.getDescription(), equalTo(item1.getDescription()));
     }
+
+    @Test
+    void testSearchAvailableReturnsPageInIdOrder() {
+        userRepository.save(user);
+        Item drill = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, user, null));
+        itemRepository.save(new Item(null, "Дрель ударная", "Сетевая", false, user, null));
+        Item set = itemRepository.save(new Item(null, "Набор", "Сверла и ДРЕЛЬ", true, user, null));
+
+        List<Item> firstPage = itemRepository.searchAvailable("дрель", 0, 0, 1);
+        List<Item> nextPage = itemRepository.searchAvailable("дрель", drill.getId(), 0, 1);
+
+        assertThat(firstPage.size(), equalTo(1));
+        assertThat(firstPage.get(0).getId(), equalTo(drill.getId()));
+        assertThat(nextPage.size(), equalTo(1));
+        assertThat(nextPage.get(0).getId(), equalTo(set.getId()));
+    }
+
+    @Test
+    void testSearchAvailableStartsAtOffset() {
+        userRepository.save(user);
+        itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, user, null));
+        Item set = itemRepository.save(new Item(null, "Набор", "Сверла и ДРЕЛЬ", true, user, null));
+        Item hammerDrill = itemRepository.save(new Item(null, "Дрель ударная", "Сетевая", true, user, null));
+
+        List<Item> items = itemRepository.searchAvailable("дрель", 0, 1, 2);
+
+        assertThat(items.size(), equalTo(2));
+        assertThat(items.get(0).getId(), equalTo(set.getId()));
+        assertThat(items.get(1).getId(), equalTo(hammerDrill.getId()));
+    }
+
+    @Test
+    void testSearchAvailableFreeSkipsItemsBookedInWindow() {
+        User booker = userRepository.save(new User(null, "Pasha", "Pasha@email.com"));
+        userRepository.save(user);
+        Item booked = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, user, null));
+        Item rejected = itemRepository.save(new Item(null, "Дрель ударная", "Сетевая", true, user, null));
+        Item bookedLater = itemRepository.save(new Item(null, "Набор", "Сверла и ДРЕЛЬ", true, user, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        em.persist(new Booking(null, start, start.plusDays(2), booked, booker, BookingStatus.WAITING));
+        em.persist(new Booking(null, start, start.plusDays(2), rejected, booker, BookingStatus.REJECTED));
+        em.persist(new Booking(null, start.plusDays(2), start.plusDays(3), bookedLater, booker,
+                BookingStatus.APPROVED));
+
+        List<Item> items = itemRepository.searchAvailableFree("дрель", start.plusDays(1), start.plusDays(2),
+                BookingScheduleIndex.ACTIVE_STATUSES, 0, 0, 10);
+
+        assertThat(items.size(), equalTo(2));
+        assertThat(items.get(0).getId(), equalTo(rejected.getId()));
+        assertThat(items.get(1).getId(), equalTo(bookedLater.getId()));
+    }
 }
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchIndexTest {
+
+    @InjectMocks
+    private InMemoryItemSearchIndex index;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingScheduleIndex bookingScheduleIndex;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User(1L, "Olga", "Olga@email.com");
+        index.rebuild(List.of(
+                new Item(1L, "Дрель", "Простая дрель", true, owner, null),
+                new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, owner, null),
+                new Item(3L, "Клей Момент", "Тюбик суперклея марки Момент", true, owner, null),
+                new Item(4L, "Аккумулятор", "Для отвертки", false, owner, null)));
+    }
+
+    @Test
+    void searchMatchesAnyPartOfWordIgnoringCase() {
+        assertThat(ids(search("оТверТ")), contains(2L));
+        assertThat(ids(search("дРелЬ")), contains(1L));
+        assertThat(ids(search("клея")), contains(3L));
+    }
+
+    @Test
+    void searchSkipsUnavailableItems() {
+        assertThat(ids(search("аккумулятор")), contains(2L));
+    }
+
+    @Test
+    void searchOrdersByRelevance() {
+        index.index(new Item(5L, "Набор", "Сверла и дрель", true, owner, null));
+
+        assertThat(ids(search("дрель")), contains(1L, 5L));
+    }
+
+    @Test
+    void searchRequiresAllQueryTokens() {
+        assertThat(ids(search("клей момент")), contains(3L));
+        assertThat(ids(search("клей дрель")), empty());
+    }
+
+    @Test
+    void indexReplacesPreviousVersionOfItem() {
+        index.index(new Item(1L, "Перфоратор", "Мощный", true, owner, null));
+
+        assertThat(search("дрель"), empty());
+        assertThat(ids(search("перфоратор")), contains(1L));
+    }
+
+    @Test
+    void indexMakesItemAvailable() {
+        index.index(new Item(4L, "Аккумулятор", "Для отвертки", true, owner, null));
+
+        assertThat(ids(search("аккумулятор")), contains(4L, 2L));
+    }
+
+    @Test
+    void indexWaitsForCommit() {
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> index.index(new Item(5L, "Набор", "Сверла и дрель", true, owner, null)));
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            index.index(new Item(6L, "Дрель ударная", "Сетевая дрель", true, owner, null));
+            assertThat(ids(search("дрель")), contains(1L));
+        });
+
+        assertThat(ids(search("дрель")), contains(1L, 6L));
+    }
+
+    @Test
+    void updateOwnerChangesSearchResults() {
+        UserDto ownerUpdated = new UserDto(1L, "Olya", "Olya@email.com");
+
+        index.updateOwner(ownerUpdated);
+
+        assertThat(search("дрель").get(0).getOwner(), equalTo(ownerUpdated));
+    }
+
+    @Test
+    void searchReturnsRequestedWindow() {
+        index.index(new Item(5L, "Набор", "Сверла и дрель", true, owner, null));
+        index.index(new Item(6L, "Дрель ударная", "Сетевая дрель", true, owner, null));
+
+        ItemSearchPage page = index.search("дрель", null, 1, 1);
+
+        assertThat(ids(page.getItems()), contains(6L));
+        assertThat(page.getNextCursor(), notNullValue());
+    }
+
+    @Test
+    void searchContinuesAfterCursor() {
+        index.index(new Item(5L, "Набор", "Сверла и дрель", true, owner, null));
+        index.index(new Item(6L, "Дрель ударная", "Сетевая дрель", true, owner, null));
+
+        ItemSearchPage first = index.search("дрель", null, 0, 2);
+        ItemSearchPage second = index.search("дрель", first.getNextCursor(), 0, 2);
+
+        assertThat(ids(first.getItems()), contains(1L, 6L));
+        assertThat(ids(second.getItems()), contains(5L));
+        assertThat(second.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void searchFailsOnBrokenCursor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> index.search("дрель", "not a cursor", 0, 2));
+    }
+
+    @Test
+    void buildOnStartupLoadsItemsFromRepository() {
+        when(itemRepository.findAllWithOwner())
+                .thenReturn(List.of(new Item(7L, "Лестница", "Стремянка", true, owner, null)));
+
+        index.buildOnStartup();
+
+        assertThat(ids(search("лестн")), contains(7L));
+        assertThat(search("дрель"), empty());
+    }
+
+    private List<ItemDto> search(String text) {
+        return index.search(text, null, 0, 100).getItems();
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void searchFreeSkipsBookedItemsBeforePaging() {
+        index.index(new Item(5L, "Набор", "Сверла и дрель", true, owner, null));
+        index.index(new Item(6L, "Дрель ударная", "Сетевая дрель", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(bookingScheduleIndex.isFree(anyLong(), any(), any()))
+                .thenAnswer(invocation -> !invocation.getArgument(0).equals(1L));
+
+        ItemSearchPage page = index.searchFree("дрель", start, start.plusDays(1), null, 0, 1);
+
+        assertThat(ids(page.getItems()), contains(6L));
+        assertThat(ids(index.searchFree("дрель", start, start.plusDays(1), page.getNextCursor(), 0, 1)
+                .getItems()), contains(5L));
+    }
+
+    /**
+     * Runs {@code work} in a stand-in transaction that ends with {@code status}.
+     */
+    private static void inTransaction(int status, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
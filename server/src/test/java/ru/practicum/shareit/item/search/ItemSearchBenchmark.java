@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.search;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the LIKE query used by {@link RepositoryItemSearchIndex} with {@link InMemoryItemSearchIndex}
+ * on an in-memory H2 database. Run with the main method from the IDE or
+ * {@code mvn -pl server test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.practicum.shareit.item.search.ItemSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "дрель", "отвертка", "аккумуляторная", "пила", "молоток", "лестница", "клей", "набор",
+        "сверло", "перфоратор", "палатка", "велосипед", "шуруповерт", "рубанок", "уровень", "фонарь"
+    };
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "10000"})
+    private int itemCount;
+
+    @Param({"отверт", "д"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private ItemSearchIndex repositoryIndex;
+    private ItemSearchIndex memoryIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:h2:mem:search_benchmark",
+                        "shareit.search.engine=database",
+                        "logging.level.root=WARN")
+                .run();
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new Item(null, randomText(random, 2), randomText(random, 6), random.nextInt(4) > 0,
+                    owner, null));
+        }
+        itemRepository.saveAll(items);
+
+        repositoryIndex = new RepositoryItemSearchIndex(itemRepository);
+        memoryIndex = new InMemoryItemSearchIndex(itemRepository, context.getBean(BookingScheduleIndex.class));
+        memoryIndex.rebuild(itemRepository.findAllWithOwner());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemSearchPage repositoryQuery() {
+        return repositoryIndex.search(query, null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ItemSearchPage invertedIndex() {
+        return memoryIndex.search(query, null, 0, PAGE_SIZE);
+    }
+
+    private static String randomText(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSearchBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingScheduleIndex;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+/**
+ * Runs the same searches against both engines. The items rank equally in memory,
+ * so both engines give them in id order.
+ */
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemSearchEnginesTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).withNano(0);
+
+    private final EntityManager em;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User(null, "Olga", "Olga@email.com");
+        User booker = new User(null, "Pasha", "Pasha@email.com");
+        em.persist(owner);
+        em.persist(booker);
+        ids = List.of("Дрель 1", "Дрель 2", "Дрель 3", "Дрель 4").stream()
+                .map(name -> itemRepository.save(new Item(null, name, "Простая", true, owner, null)).getId())
+                .collect(Collectors.toList());
+        em.persist(new Booking(null, START, START.plusDays(2),
+                itemRepository.getReferenceById(ids.get(1)), booker, BookingStatus.APPROVED));
+        em.flush();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "database"})
+    void searchStartsAtAnyOffset(String engine) {
+        ItemSearchPage page = engine(engine).search("дрель", null, 1, 2);
+
+        assertThat(ids(page), contains(ids.get(1), ids.get(2)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "database"})
+    void searchContinuesAfterCursor(String engine) {
+        ItemSearchIndex index = engine(engine);
+
+        ItemSearchPage first = index.search("дрель", null, 0, 3);
+        ItemSearchPage second = index.search("дрель", first.getNextCursor(), 0, 3);
+
+        assertThat(ids(first), contains(ids.get(0), ids.get(1), ids.get(2)));
+        assertThat(ids(second), contains(ids.get(3)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "database"})
+    void searchFreeStartsAtOffsetAfterSkippingBookedItems(String engine) {
+        ItemSearchPage page = engine(engine).searchFree("дрель", START.plusDays(1), START.plusDays(3), null, 1, 2);
+
+        assertThat(ids(page), contains(ids.get(2), ids.get(3)));
+    }
+
+    private ItemSearchIndex engine(String name) {
+        if (name.equals("database")) {
+            return new RepositoryItemSearchIndex(itemRepository);
+        }
+        BookingScheduleIndex schedule = new BookingScheduleIndex(bookingRepository);
+        schedule.buildOnStartup();
+        InMemoryItemSearchIndex index = new InMemoryItemSearchIndex(itemRepository, schedule);
+        index.buildOnStartup();
+        return index;
+    }
+
+    private static List<Long> ids(ItemSearchPage page) {
+        return page.getItems().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -24,6 +24,8 @@ import ru.practicum.shareit.item.dto.ItemBookingCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchPage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -35,12 +37,13 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @Transactional
@@ -76,6 +79,8 @@ class ItemServiceImplTest {
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
 
     @BeforeEach
     void setUp() {
@@ -154,13 +159,14 @@ class ItemServiceImplTest {
                 1L, "broken saw", "big power", false, user, itemRequest);
         when(userService.findUserIfExistOrElseThrowNotFound(any(Long.class)))
                 .thenReturn(userDto);
-        when(itemRepository.findById(any(Long.class)))
+        when(itemRepository.findWithOwnerById(any(Long.class)))
                 .thenReturn(Optional.of(item));
         when(itemRepository.save(any(Item.class)))
                 .thenReturn(itemUpdated);
 
         ItemDto itemSaved = itemService.update(itemToUpdate, 1L, 1L);
 
+        verify(itemSearchIndex).index(item);
         assertThat(itemSaved.getId(), notNullValue());
         assertThat(itemSaved.getName(), equalTo(itemToUpdate.getName()));
         assertThat(itemSaved.getDescription(), equalTo(itemDto.getDescription()));
@@ -174,7 +180,7 @@ class ItemServiceImplTest {
                 null, "broken saw", null, false, null, null);
         when(userService.findUserIfExistOrElseThrowNotFound(any(Long.class)))
                 .thenReturn(userDto);
-        when(itemRepository.findById(any(Long.class)))
+        when(itemRepository.findWithOwnerById(any(Long.class)))
                 .thenReturn(Optional.of(item));
 
         final ForbiddenAccessException exception = Assertions.assertThrows(
@@ -186,15 +192,17 @@ class ItemServiceImplTest {
 
     @Test
     void getByItemId() {
+        last.setItem(item);
+        next.setItem(item);
         when(userService.findUserIfExistOrElseThrowNotFound(any(Long.class)))
                 .thenReturn(userDto);
         when(itemRepository.findById(any(Long.class)))
                 .thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByItem_Owner_IdAndItem_IdOrderByStart(anyLong(), anyLong()))
-                .thenReturn(Optional.of(last));
-        when(bookingRepository.findFirstByItem_OwnerIdAndIdOrderByStartDesc(anyLong(), anyLong()))
-                .thenReturn(Optional.of(next));
-        when(commentRepository.findAllByItemId(anyLong()))
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), any()))
+                .thenReturn(List.of(last));
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), any()))
+                .thenReturn(List.of(next));
+        when(commentRepository.findAllByItemIds(anyCollection()))
                 .thenReturn(List.of(comment));
 
         ItemBookingCommentDto itemFound = itemService.getByItemId(1L, 1L);
@@ -214,36 +222,65 @@ class ItemServiceImplTest {
                 .thenReturn(userDto);
         when(itemRepository.findAllByOwnerId(any(Long.class)))
                 .thenReturn(List.of(item));
-        when(bookingRepository.findFirstByItem_Owner_IdAndItem_IdOrderByStart(anyLong(), anyLong()))
-                .thenReturn(Optional.empty());
-        when(bookingRepository.findFirstByItem_OwnerIdAndIdOrderByStartDesc(anyLong(), anyLong()))
-                .thenReturn(Optional.empty());
-        when(itemRepository.findById(any(Long.class)))
-                .thenReturn(Optional.of(item));
-        when(commentRepository.findAllByItemId(anyLong()))
-                .thenReturn(Collections.emptyList());
+        last.setItem(item);
+        next.setItem(item);
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), any()))
+                .thenReturn(List.of(last));
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), any()))
+                .thenReturn(List.of(next));
+        when(commentRepository.findAllByItemIds(anyCollection()))
+                .thenReturn(List.of(comment));
 
         List<ItemBookingCommentDto> itemsFound = itemService.getItemsByUserId(1L);
 
         assertThat(itemsFound.size(), equalTo(1));
+        assertThat(itemsFound.get(0).getLastBooking(), equalTo(new BookingShortDto(last.getId(), booker.getId())));
+        assertThat(itemsFound.get(0).getNextBooking(), equalTo(new BookingShortDto(next.getId(), booker.getId())));
+        assertThat(itemsFound.get(0).getComments().size(), equalTo(1));
+    }
+
+    @Test
+    void getItemsByUserIdNoItems() {
+        when(userService.findUserIfExistOrElseThrowNotFound(any(Long.class)))
+                .thenReturn(userDto);
+        when(itemRepository.findAllByOwnerId(any(Long.class)))
+                .thenReturn(Collections.emptyList());
+
+        final ItemNotFoundException exception = Assertions.assertThrows(
+                ItemNotFoundException.class,
+                () -> itemService.getItemsByUserId(1L));
+
+        Assertions.assertEquals("User has no items", exception.getMessage());
     }
 
     @Test
     void search() {
-        when(itemRepository
-                .findAllByNameContainingIgnoreCaseAndIsAvailableTrueOrDescriptionContainingIgnoreCaseAndAndIsAvailableTrue(
-                        anyString(), anyString()))
-                .thenReturn(Set.of(item));
+        when(itemSearchIndex.search(anyString(), any(), anyInt(), anyInt()))
+                .thenReturn(new ItemSearchPage(List.of(itemDto), null));
 
-        Set<ItemDto> items = itemService.search("aw");
+        ItemSearchPage page = itemService.search("aw", null, 0, 20);
 
-        assertThat(items.size(), equalTo(1));
+        assertThat(page.getItems().size(), equalTo(1));
     }
 
     @Test
     void searchEmptyText() {
-        Set<ItemDto> items = itemService.search("");
-        assertThat(items.size(), equalTo(0));
+        ItemSearchPage page = itemService.search("", null, 0, 20);
+        assertThat(page.getItems().size(), equalTo(0));
+    }
+
+    @Test
+    void searchFailWrongSize() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> itemService.search("aw", null, 0, 0));
+    }
+
+    @Test
+    void searchFreeFailStartAfterEnd() {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> itemService.searchFree("aw", start, start.minusDays(1), null, 0, 20));
+        verifyNoInteractions(itemSearchIndex);
     }
 
     @Test
@@ -0,0 +1,212 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enumerated.BookingStatus;
+import ru.practicum.shareit.item.comments.Comment;
+import ru.practicum.shareit.item.comments.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBookingCommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ItemServiceStatementCountTest {
+
+    private final EntityManager em;
+    private final ItemService itemService;
+    private User owner;
+    private User booker;
+    private int itemCounter;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User(null, "Olga", "Olga@email.com");
+        booker = new User(null, "Pasha", "Pasha@email.com");
+        em.persist(owner);
+        em.persist(booker);
+    }
+
+    @Test
+    void getItemsByUserIdStatementCountDoesNotGrowWithItems() {
+        addItemsWithBookingsAndComments(2);
+        itemService.getItemsByUserId(owner.getId());
+        em.clear();
+        long statementsForTwoItems = countStatements(() -> {
+            List<ItemBookingCommentDto> items = itemService.getItemsByUserId(owner.getId());
+            assertThat(items.size(), equalTo(2));
+            assertThat(items.get(0).getLastBooking(), notNullValue());
+            assertThat(items.get(0).getNextBooking(), notNullValue());
+            assertThat(items.get(0).getComments().size(), equalTo(1));
+        });
+
+        addItemsWithBookingsAndComments(20);
+        long statementsForManyItems = countStatements(() ->
+                assertThat(itemService.getItemsByUserId(owner.getId()).size(), equalTo(22)));
+
+        assertThat(statementsForManyItems, equalTo(statementsForTwoItems));
+    }
+
+    @Test
+    void getByItemIdsStatementCountDoesNotGrowWithItems() {
+        addItemsWithBookingsAndComments(2);
+        List<Long> twoIds = itemIds();
+        itemService.getByItemIds(twoIds, owner.getId());
+        itemService.getByItemIds(twoIds, booker.getId());
+        em.clear();
+        long statementsForTwoItems = countStatements(() -> {
+            List<ItemBookingCommentDto> items = itemService.getByItemIds(twoIds, owner.getId());
+            assertThat(items.size(), equalTo(2));
+            assertThat(items.get(0).getLastBooking(), notNullValue());
+            assertThat(items.get(0).getComments().size(), equalTo(1));
+        });
+
+        addItemsWithBookingsAndComments(20);
+        List<Long> manyIds = itemIds();
+        long statementsForManyItems = countStatements(() ->
+                assertThat(itemService.getByItemIds(manyIds, owner.getId()).size(), equalTo(22)));
+        long statementsForBooker = countStatements(() ->
+                assertThat(itemService.getByItemIds(manyIds, booker.getId()).get(0).getLastBooking(), nullValue()));
+
+        assertThat(statementsForTwoItems, equalTo(4L));
+        assertThat(statementsForManyItems, equalTo(4L));
+        assertThat(statementsForBooker, equalTo(2L));
+    }
+
+    @Test
+    void importItemsInsertsInBatches() {
+        itemService.getByItemIds(List.of(), owner.getId());
+        List<ItemDto> rows = IntStream.range(0, 120)
+                .mapToObj(i -> new ItemDto(null, "item" + i, "description", true, null, i == 1 ? 999L : null))
+                .collect(Collectors.toList());
+
+        long statements = countStatements(() -> {
+            ItemImportResult result = itemService.importItems(rows, owner.getId());
+            em.flush();
+            assertThat(result.getIds().size(), equalTo(120));
+            assertThat(result.getIds().get(1), nullValue());
+            assertThat(result.getErrors().size(), equalTo(1));
+            assertThat(result.getErrors().get(0).getRow(), equalTo(2));
+        });
+
+        assertThat(itemIds().size(), equalTo(119));
+        // request lookup, a few sequence calls and 3 insert batches of at most 50 rows instead of 119 inserts
+        assertThat(statements, lessThanOrEqualTo(7L));
+    }
+
+    @Test
+    void updateReadsItemAndUpdatesIt() {
+        addItemsWithBookingsAndComments(1);
+        Long itemId = itemService.getItemsByUserId(owner.getId()).get(0).getId();
+        em.clear();
+
+        long statements = countStatements(() -> {
+            ItemDto item = itemService.update(new ItemDto(null, "Дрель", null, null, null, null),
+                    owner.getId(), itemId);
+            em.flush();
+            assertThat(item.getOwner().getName(), equalTo("Olga"));
+        });
+
+        // item with owner, update
+        assertThat(statements, equalTo(2L));
+    }
+
+    @Test
+    void createCommentReadsBookingsAndItemAndInsertsComment() {
+        addItemsWithBookingsAndComments(1);
+        Long itemId = itemService.getItemsByUserId(owner.getId()).get(0).getId();
+        itemService.getByItemIds(List.of(itemId), booker.getId());
+        em.clear();
+
+        long statements = countStatements(() -> {
+            CommentDto comment = itemService.createComment(new CommentDto(null, "Отлично", null, null),
+                    booker.getId(), itemId);
+            em.flush();
+            assertThat(comment.getAuthorName(), equalTo("Pasha"));
+        });
+
+        // past bookings, item, the second pool of ids of the sequence, insert
+        assertThat(statements, equalTo(4L));
+    }
+
+    private List<Long> itemIds() {
+        return em.createQuery("select i.id from Item i order by i.id desc", Long.class).getResultList();
+    }
+
+    private void addItemsWithBookingsAndComments(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Item item = new Item(null, "item" + itemCounter++, "description", true, owner, null);
+            em.persist(item);
+            Booking past = new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.APPROVED);
+            em.persist(past);
+            em.persist(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.WAITING));
+            em.persist(new Comment(null, "nice", item, booker, now));
+            em.flush();
+            em.createQuery("update Booking b set b.start = :start, b.end = :end where b.id = :id")
+                    .setParameter("start", now.minusDays(2))
+                    .setParameter("end", now.minusDays(1))
+                    .setParameter("id", past.getId())
+                    .executeUpdate();
+        }
+        em.clear();
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        long count = statistics.getPrepareStatementCount();
+        em.clear();
+        return count;
+    }
+
+    @Test
+    void getByItemIdLoadsItemBookingsAndCommentsOnce() {
+        addItemsWithBookingsAndComments(1);
+        Long itemId = itemService.getItemsByUserId(owner.getId()).get(0).getId();
+        itemService.getByItemId(itemId, booker.getId());
+        em.clear();
+
+        long statementsForOwner = countStatements(() -> {
+            ItemBookingCommentDto item = itemService.getByItemId(itemId, owner.getId());
+            assertThat(item.getLastBooking(), notNullValue());
+            assertThat(item.getNextBooking(), notNullValue());
+            assertThat(item.getComments().size(), equalTo(1));
+        });
+        long statementsForBooker = countStatements(() -> {
+            ItemBookingCommentDto item = itemService.getByItemId(itemId, booker.getId());
+            assertThat(item.getLastBooking(), nullValue());
+            assertThat(item.getComments().size(), equalTo(1));
+        });
+
+        assertThat(statementsForOwner, equalTo(4L));
+        assertThat(statementsForBooker, equalTo(2L));
+    }
+}
@@ -6,10 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.etag.ReadVersions;
+import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -19,18 +24,27 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
+@Import(ReadVersions.class)
 class ItemRequestControllerTest {
     @Autowired
     private ObjectMapper mapper;
     @MockBean
     private ItemRequestService itemRequestService;
+    @MockBean
+    private UserService userService;
+    @Autowired
+    private ReadVersions readVersions;
     private ItemRequestDto itemRequestDto;
     private ItemRequestDto itemRequestDtoResponse;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd, HH:mm:ss");
@@ -116,4 +130,36 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.created", is(String.valueOf(itemRequestDtoResponse.getCreated()))));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllRequestsByPagesAnswersMatchingETagWithNotModified() throws Exception {
+        String eTag = mvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        verify(itemRequestService, times(1)).findAllByRequestorIdNot(any(), any(), any());
+    }
+
+    @Test
+    void unknownUserWithMatchingETagIsNotFound() throws Exception {
+        when(userService.findUserIfExistOrElseThrowNotFound(99L))
+                .thenThrow(new UserNotFoundException("User is not found"));
+
+        mvc.perform(get("/requests")
+                        .header("X-Sharer-User-Id", 99)
+                        .header(HttpHeaders.IF_NONE_MATCH, readVersions.requestsETag(99L))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+
+        verify(itemRequestService, never()).getAllByUserId(any());
+    }
+}
@@ -13,6 +13,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @DataJpaTest
 @Transactional
@@ -65,4 +66,17 @@ class ItemRequestRepositoryTest {
         repository.save(request);
         Assertions.assertNotNull(request.getId());
     }
+
+    @Test
+    void findAllByRequestorIdGivesNewestFirst() {
+        User user = em.persist(new User(null, "Olya", "olya@email.com"));
+        LocalDateTime now = LocalDateTime.now();
+        ItemRequest older = em.persist(new ItemRequest(null, "Нужна дрель", user, now.minusDays(1), null));
+        ItemRequest newer = em.persist(new ItemRequest(null, "Нужна отвертка", user, now, null));
+
+        List<ItemRequest> requests = repository.findAllByRequestorIdOrderByCreatedDesc(user.getId());
+
+        Assertions.assertEquals(List.of(newer.getId(), older.getId()),
+                List.of(requests.get(0).getId(), requests.get(1).getId()));
+    }
 }
@@ -13,6 +13,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.exception.RequestNotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -32,6 +33,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @Transactional
@@ -51,6 +53,8 @@ class ItemRequestServiceImplTest {
     private ItemRequestRepository itemRequestRepository;
     @Mock
     private UserService userService;
+    @Mock
+    private ItemRepository itemRepository;
     private UserDto userDto;
     private User user;
     private ItemRequestDto itemRequestDto;
@@ -89,20 +93,32 @@ class ItemRequestServiceImplTest {
     @Test
     void getAllByUserId() {
         Item item = new Item(1L, "saw", "big power", true, user, itemRequest2);
-        itemRequest2.setItems(List.of(item));
-        when(itemRequestRepository.findAllByRequestorId(anyLong()))
+        when(itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(anyLong()))
                 .thenReturn(List.of(itemRequest, itemRequest2));
+        when(itemRepository.findAllByItemRequestIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(item));
 
         List<ItemRequestDto> requests = itemRequestService.getAllByUserId(2L);
 
         assertThat(requests.size(), equalTo(2));
         assertThat(requests.get(0).getId(), equalTo(itemRequest.getId()));
+        assertThat(requests.get(0).getItems().size(), equalTo(0));
         assertThat(requests.get(1).getId(), equalTo(itemRequest2.getId()));
+        assertThat(requests.get(1).getItems().size(), equalTo(1));
+    }
+
+    @Test
+    void getAllByUserIdNoRequests() {
+        when(itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(anyLong()))
+                .thenReturn(List.of());
+
+        assertThat(itemRequestService.getAllByUserId(2L).size(), equalTo(0));
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     void getByItemRequestIdNoItems() {
-        when(itemRequestRepository.findById(anyLong()))
+        when(itemRequestRepository.findWithItemsById(anyLong()))
                 .thenReturn(Optional.of(itemRequest));
 
         ItemRequestDto requestFound = itemRequestService.getByItemRequestId(2L, 1L);
@@ -117,7 +133,7 @@ class ItemRequestServiceImplTest {
     void getByItemRequestIdWithItems() {
         Item item = new Item(1L, "saw", "big power", true, user, itemRequest2);
         itemRequest2.setItems(List.of(item));
-        when(itemRequestRepository.findById(anyLong()))
+        when(itemRequestRepository.findWithItemsById(anyLong()))
                 .thenReturn(Optional.of(itemRequest2));
 
         ItemRequestDto requestFound = itemRequestService.getByItemRequestId(2L, 1L);
@@ -130,7 +146,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void failGetByItemRequestIdNotFound() {
-        when(itemRequestRepository.findById(anyLong()))
+        when(itemRequestRepository.findWithItemsById(anyLong()))
                 .thenReturn(Optional.empty());
 
         final RequestNotFoundException exception = Assertions.assertThrows(
@@ -143,14 +159,17 @@ class ItemRequestServiceImplTest {
     @Test
     void findAllByRequestorIdNot() {
         Item item = new Item(1L, "saw", "big power", true, user, itemRequest2);
-        itemRequest2.setItems(List.of(item));
         when(itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(anyLong(), any()))
-                .thenReturn(List.of(itemRequest, itemRequest2));
+                .thenReturn(List.of(itemRequest2, itemRequest));
+        when(itemRepository.findAllByItemRequestIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(item));
 
         List<ItemRequestDto> requests = itemRequestService.findAllByRequestorIdNot(1L, 0, 2);
 
         assertThat(requests.size(), equalTo(2));
-        assertThat(requests.get(0).getId(), equalTo(itemRequest.getId()));
-        assertThat(requests.get(1).getId(), equalTo(itemRequest2.getId()));
+        assertThat(requests.get(0).getId(), equalTo(itemRequest2.getId()));
+        assertThat(requests.get(0).getItems().get(0).getName(), equalTo("saw"));
+        assertThat(requests.get(1).getId(), equalTo(itemRequest.getId()));
+        assertThat(requests.get(1).getItems().size(), equalTo(0));
     }
 }
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ItemRequestServiceStatementCountTest {
+
+    private final EntityManager em;
+    private final ItemRequestService itemRequestService;
+    private User requestor;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        requestor = new User(null, "Lena", "Lena@email.com");
+        em.persist(requestor);
+        request = new ItemRequest(null, "Нужна дрель", requestor, LocalDateTime.now(), null);
+        em.persist(request);
+        for (int i = 0; i < 3; i++) {
+            User owner = new User(null, "Owner" + i, "owner" + i + "@email.com");
+            em.persist(owner);
+            em.persist(new Item(null, "Дрель" + i, "Простая дрель", true, owner, request));
+        }
+        em.flush();
+        em.clear();
+        // users found once are cached, the counts below are of the request work only
+        itemRequestService.getAllByUserId(requestor.getId());
+        em.clear();
+    }
+
+    @Test
+    void createInsertsRequestWithoutReadingIt() {
+        long statements = countStatements(() -> {
+            itemRequestService.create(ItemRequestDto.builder().description("Нужна пила").build(),
+                    requestor.getId());
+            em.flush();
+        });
+
+        // the second pool of ids of the sequence, insert
+        assertThat(statements, equalTo(2L));
+    }
+
+    @Test
+    void getByItemRequestIdReadsRequestWithItemsAndOwnersOnce() {
+        long statements = countStatements(() -> {
+            ItemRequestDto found = itemRequestService.getByItemRequestId(requestor.getId(), request.getId());
+            assertThat(found.getItems().size(), equalTo(3));
+            assertThat(found.getItems().get(0).getOwner().getName(), startsWith("Owner"));
+        });
+
+        assertThat(statements, equalTo(1L));
+    }
+
+    @Test
+    void getAllByUserIdReadsRequestsThenTheirItemsWithOwners() {
+        long statements = countStatements(() -> {
+            List<ItemRequestDto> requests = itemRequestService.getAllByUserId(requestor.getId());
+            assertThat(requests.size(), equalTo(1));
+            assertThat(requests.get(0).getItems().size(), equalTo(3));
+            assertThat(requests.get(0).getItems().get(0).getOwner().getName(), startsWith("Owner"));
+        });
+
+        // requests, items with owners
+        assertThat(statements, equalTo(2L));
+    }
+
+    @Test
+    void findAllByRequestorIdNotStatementCountDoesNotGrowWithRequests() {
+        User other = new User(null, "Pasha", "Pasha@email.com");
+        em.persist(other);
+        em.flush();
+        itemRequestService.getAllByUserId(other.getId());
+        em.clear();
+        long statementsForOneRequest = countStatements(() ->
+                assertThat(itemRequestService.findAllByRequestorIdNot(other.getId(), 0, 20).size(), equalTo(1)));
+
+        LocalDateTime created = request.getCreated();
+        for (int i = 1; i <= 10; i++) {
+            ItemRequest next = new ItemRequest(null, "Нужна пила" + i, requestor, created.plusMinutes(i), null);
+            em.persist(next);
+            em.persist(new Item(null, "Пила" + i, "Простая пила", true, other, next));
+        }
+        em.flush();
+        em.clear();
+        long statementsForManyRequests = countStatements(() -> {
+            List<ItemRequestDto> requests = itemRequestService.findAllByRequestorIdNot(other.getId(), 0, 20);
+            assertThat(requests.size(), equalTo(11));
+            assertThat(requests.get(0).getDescription(), equalTo("Нужна пила10"));
+            assertThat(requests.get(0).getItems().get(0).getName(), equalTo("Пила10"));
+            assertThat(requests.get(10).getItems().size(), equalTo(3));
+        });
+
+        // requests, items with owners
+        assertThat(statementsForOneRequest, equalTo(2L));
+        assertThat(statementsForManyRequests, equalTo(2L));
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        long count = statistics.getPrepareStatementCount();
+        em.clear();
+        return count;
+    }
+}
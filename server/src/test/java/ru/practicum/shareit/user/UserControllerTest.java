@@ -13,9 +13,12 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -53,6 +56,30 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email", is(userDto.getEmail())));
     }
 
+    @Test
+    void testFindAllById() throws Exception {
+        when(userService.getAllById(List.of(2L, 1L)))
+                .thenReturn(List.of(new UserDto(2L, "Lena", "lena@mail.com"), userDto));
+
+        mvc.perform(get("/users?ids=2,1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(2L), Long.class))
+                .andExpect(jsonPath("$[1].id", is(1L), Long.class));
+    }
+
+    @Test
+    void testFindAllByIdRejectsMoreThanHundredIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, 101)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        mvc.perform(get("/users").param("ids", ids)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(userService);
+    }
+
     @Test
     void testUpdateUser() throws Exception {
         userService.create(userDto);
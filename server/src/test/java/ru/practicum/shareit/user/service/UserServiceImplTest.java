@@ -1,12 +1,15 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -31,6 +34,8 @@ class UserServiceImplTest {
 
     private final EntityManager em;
     private final UserService userService;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
 
     @Test
     void saveNewUser() {
@@ -181,4 +186,97 @@ class UserServiceImplTest {
 
         Assertions.assertEquals("User is not found", exception.getMessage());
     }
+
+    @Test
+    @DisplayName("repeated checks are served from the cache")
+    void findUserIfExistOrElseThrowNotFoundCountsHits() {
+        UserDto userSaved = userService.create(new UserDto(null, "Olga", "Olga@email.com"));
+
+        userService.findUserIfExistOrElseThrowNotFound(userSaved.getId());
+        userService.findUserIfExistOrElseThrowNotFound(userSaved.getId());
+        userService.findUserIfExistOrElseThrowNotFound(userSaved.getId());
+
+        assertThat(cacheGets("miss"), equalTo(1.0));
+        assertThat(cacheGets("hit"), equalTo(2.0));
+    }
+
+    @Test
+    @DisplayName("update replaces the cached user")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void findUserIfExistOrElseThrowNotFoundAfterUpdate() {
+        UserDto userSaved = userService.create(new UserDto(null, "Olga", "Olga@email.com"));
+        userService.findUserIfExistOrElseThrowNotFound(userSaved.getId());
+
+        userService.update(new UserDto(userSaved.getId(), "Olya", null));
+
+        assertThat(userService.findUserIfExistOrElseThrowNotFound(userSaved.getId()).getName(), equalTo("Olya"));
+    }
+
+    @Test
+    @DisplayName("removed user is no longer found")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void findUserIfExistOrElseThrowNotFoundAfterRemove() {
+        UserDto userSaved = userService.create(new UserDto(null, "Olga", "Olga@email.com"));
+        userService.findUserIfExistOrElseThrowNotFound(userSaved.getId());
+
+        userService.removeUser(userSaved.getId());
+
+        Assertions.assertThrows(UserNotFoundException.class,
+                () -> userService.findUserIfExistOrElseThrowNotFound(userSaved.getId()));
+    }
+
+    @Test
+    @DisplayName("cached user is dropped when the update commits")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void updateEvictsCachedUserOnCommit() {
+        UserDto userSaved = userService.create(new UserDto(null, "Olga", "Olga@email.com"));
+        userService.findUserIfExistOrElseThrowNotFound(userSaved.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.update(new UserDto(userSaved.getId(), "Olya", null));
+            userService.findUserIfExistOrElseThrowNotFound(userSaved.getId());
+            assertThat(cacheGets("hit"), equalTo(1.0));
+        });
+
+        assertThat(userService.findUserIfExistOrElseThrowNotFound(userSaved.getId()).getName(), equalTo("Olya"));
+        assertThat(cacheGets("miss"), equalTo(2.0));
+    }
+
+    @Test
+    @DisplayName("rolled back removal keeps the cached user")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void rolledBackRemoveKeepsCachedUser() {
+        UserDto userSaved = userService.create(new UserDto(null, "Olga", "Olga@email.com"));
+        userService.findUserIfExistOrElseThrowNotFound(userSaved.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.removeUser(userSaved.getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(userService.findUserIfExistOrElseThrowNotFound(userSaved.getId()), equalTo(userSaved));
+        assertThat(cacheGets("hit"), equalTo(1.0));
+    }
+
+    @Test
+    @DisplayName("users found by ids go through the cache")
+    void getAllByIdUsesCache() {
+        UserDto olga = userService.create(new UserDto(null, "Olga", "Olga@email.com"));
+        UserDto pasha = userService.create(new UserDto(null, "Pasha", "Pasha@email.com"));
+        userService.findUserIfExistOrElseThrowNotFound(olga.getId());
+
+        List<UserDto> users = userService.getAllById(List.of(pasha.getId(), 99L, olga.getId(), pasha.getId()));
+        userService.findUserIfExistOrElseThrowNotFound(pasha.getId());
+
+        assertThat(users, contains(pasha, olga));
+        assertThat(cacheGets("hit"), equalTo(2.0));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "users")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
 }